@@ -0,0 +1,134 @@
+package com.expensetracker.bench;
+
+import com.expensetracker.model.Money;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+import com.expensetracker.service.LedgerAggregates;
+import com.expensetracker.service.LedgerSnapshot;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * In-memory aggregation paths; no database needed.
+ */
+final class AggregationBenchmarks {
+
+    private static final int ROWS = Integer.getInteger("bench.rows", 100_000);
+    private static final String[] CATEGORIES = {
+            "Food", "Travel", "Shopping", "Rent", "Bills", "Salary", "Others"
+    };
+
+    private AggregationBenchmarks() {
+    }
+
+    static List<Benchmark> all() {
+        List<Transaction> ledger = syntheticLedger(ROWS, 42);
+        LedgerAggregates aggregates = new LedgerAggregates();
+        ledger.forEach(aggregates::applyAdd);
+
+        LocalDate today = LocalDate.of(2024, 12, 31);
+        Transaction probe = ledger.get(ledger.size() / 2);
+
+        List<Transaction> ordered = new ArrayList<>(ledger);
+        ordered.sort(Comparator.comparing(Transaction::getDate)
+                .thenComparingInt(Transaction::getId).reversed());
+        LedgerSnapshot snapshot = LedgerSnapshot.of(ordered, null);
+        LedgerSnapshot parallelSnapshot = snapshot.parallel();
+        LocalDate yearAgo = today.minusYears(1);
+
+        // Same amounts as the old double model held them, for the sum comparison
+        double[] majorAmounts = new double[ledger.size()];
+        long[] minorAmounts = new long[ledger.size()];
+        for (int i = 0; i < ledger.size(); i++) {
+            minorAmounts[i] = ledger.get(i).getAmount();
+            majorAmounts[i] = Money.toMajor(minorAmounts[i]);
+        }
+
+        return List.of(
+                // The pre-aggregation getSummary(): one pass over every row
+                benchmark("summary.loopOverRows", () -> {
+                    long income = 0;
+                    long expense = 0;
+                    for (Transaction t : ledger) {
+                        if (t.getType() == TransactionType.INCOME) income += t.getAmount();
+                        else expense += t.getAmount();
+                    }
+                    return income - expense;
+                }),
+                benchmark("money.sum.double", () -> {
+                    double total = 0;
+                    for (double a : majorAmounts) total += a;
+                    return total;
+                }),
+                benchmark("money.sum.minorUnits", () -> {
+                    long total = 0;
+                    for (long a : minorAmounts) total += a;
+                    return total;
+                }),
+                benchmark("summary.aggregates.allTime", aggregates::getSummary),
+                benchmark("summary.aggregates.lastYear",
+                        () -> aggregates.getSummary(today.minusYears(1), today, null)),
+                benchmark("snapshot.summarize.allTime", () -> snapshot.summarize(null, null, null)),
+                benchmark("snapshot.summarize.allTime.parallel",
+                        () -> parallelSnapshot.summarize(null, null, null)),
+                benchmark("snapshot.sum.lastYear.food",
+                        () -> snapshot.sum(yearAgo, today, TransactionType.EXPENSE, "Food")),
+                benchmark("list.sum.lastYear.food", () -> {
+                    long total = 0;
+                    for (Transaction t : ledger) {
+                        if (t.getType() == TransactionType.EXPENSE && "Food".equals(t.getCategory())
+                                && !t.getDate().isBefore(yearAgo) && !t.getDate().isAfter(today)) {
+                            total += t.getAmount();
+                        }
+                    }
+                    return total;
+                }),
+                benchmark("aggregates.applyAddDelete", () -> {
+                    aggregates.applyAdd(probe);
+                    aggregates.applyDelete(probe);
+                    return probe;
+                })
+        );
+    }
+
+    static List<Transaction> syntheticLedger(int rows, long seed) {
+        Random random = new Random(seed);
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        List<Transaction> ledger = new ArrayList<>(rows);
+
+        for (int i = 0; i < rows; i++) {
+            boolean income = random.nextInt(10) == 0;
+            ledger.add(new Transaction(
+                    i + 1,
+                    1 + random.nextInt(500_00),
+                    start.plusDays(random.nextInt(5 * 365)),
+                    income ? "Salary" : CATEGORIES[random.nextInt(CATEGORIES.length - 1)],
+                    income ? TransactionType.INCOME : TransactionType.EXPENSE,
+                    "note " + i));
+        }
+        return ledger;
+    }
+
+    static Benchmark benchmark(String name, ThrowingSupplier body) {
+        return new Benchmark() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Object run() throws Exception {
+                return body.get();
+            }
+        };
+    }
+
+    @FunctionalInterface
+    interface ThrowingSupplier {
+        Object get() throws Exception;
+    }
+}
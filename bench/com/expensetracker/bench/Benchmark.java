@@ -0,0 +1,22 @@
+package com.expensetracker.bench;
+
+/**
+ * One measured operation. {@link #run()} is called in a tight loop; its
+ * return value is consumed so the JIT cannot discard the work.
+ */
+public interface Benchmark {
+
+    String getName();
+
+    default boolean requiresDatabase() {
+        return false;
+    }
+
+    default void setUp() throws Exception {
+    }
+
+    Object run() throws Exception;
+
+    default void tearDown() throws Exception {
+    }
+}
@@ -0,0 +1,56 @@
+package com.expensetracker.bench;
+
+/**
+ * Throughput and allocation for one benchmark, averaged over the
+ * measurement iterations.
+ */
+public final class BenchmarkResult {
+
+    private final String name;
+    private final double opsPerSecond;
+    private final double errorPercent;
+    private final double bytesPerOp;
+    private final long operations;
+
+    public BenchmarkResult(String name, double opsPerSecond, double errorPercent,
+                           double bytesPerOp, long operations) {
+        this.name = name;
+        this.opsPerSecond = opsPerSecond;
+        this.errorPercent = errorPercent;
+        this.bytesPerOp = bytesPerOp;
+        this.operations = operations;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getOpsPerSecond() {
+        return opsPerSecond;
+    }
+
+    public double getErrorPercent() {
+        return errorPercent;
+    }
+
+    public double getBytesPerOp() {
+        return bytesPerOp;
+    }
+
+    public long getOperations() {
+        return operations;
+    }
+
+    String toJson() {
+        return String.format(java.util.Locale.ROOT,
+                "{\"name\": \"%s\", \"mode\": \"thrpt\", \"opsPerSecond\": %.3f, "
+                        + "\"errorPercent\": %.2f, \"bytesPerOp\": %.1f, \"operations\": %d}",
+                name, opsPerSecond, errorPercent, bytesPerOp, operations);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(java.util.Locale.ROOT, "%-45s %14.1f ops/s  +-%5.1f%%  %10.1f B/op",
+                name, opsPerSecond, errorPercent, bytesPerOp);
+    }
+}
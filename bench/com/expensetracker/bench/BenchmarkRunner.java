@@ -0,0 +1,200 @@
+package com.expensetracker.bench;
+
+import com.expensetracker.dao.MapperBenchmarks;
+import com.expensetracker.db.DBConnection;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal JMH-style harness: timed warmup and measurement iterations,
+ * throughput with a simple error estimate, and allocated bytes per
+ * operation (the equivalent of JMH's GC profiler {@code gc.alloc.rate.norm}).
+ *
+ * <pre>
+ * java -cp out com.expensetracker.bench.BenchmarkRunner \
+ *      [--db] [--filter regex] [--warmup 3] [--iterations 5] [--time-ms 1000] \
+ *      [--out results.json] [--baseline previous.json] [--threshold 10]
+ * </pre>
+ *
+ * Database benchmarks only run with {@code --db}. They write rows tagged
+ * with the {@link DatabaseBenchmarks#BENCH_CATEGORY} category and delete
+ * them again afterwards.
+ */
+public class BenchmarkRunner {
+
+    private static final Pattern RESULT_PATTERN = Pattern.compile(
+            "\"name\":\\s*\"([^\"]+)\".*?\"opsPerSecond\":\\s*([0-9.]+)");
+
+    private static volatile int sink;
+
+    private int warmupIterations = 3;
+    private int measurementIterations = 5;
+    private long iterationMillis = 1000;
+
+    public static void main(String[] args) throws Exception {
+
+        BenchmarkRunner runner = new BenchmarkRunner();
+        boolean withDatabase = false;
+        String filter = ".*";
+        Path out = Path.of("bench-results.json");
+        Path baseline = null;
+        double threshold = 10;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--db" -> withDatabase = true;
+                case "--filter" -> filter = args[++i];
+                case "--warmup" -> runner.warmupIterations = Integer.parseInt(args[++i]);
+                case "--iterations" -> runner.measurementIterations = Integer.parseInt(args[++i]);
+                case "--time-ms" -> runner.iterationMillis = Long.parseLong(args[++i]);
+                case "--out" -> out = Path.of(args[++i]);
+                case "--baseline" -> baseline = Path.of(args[++i]);
+                case "--threshold" -> threshold = Double.parseDouble(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        List<Benchmark> benchmarks = new ArrayList<>();
+        benchmarks.addAll(MapperBenchmarks.all());
+        benchmarks.addAll(AggregationBenchmarks.all());
+        if (withDatabase) {
+            benchmarks.addAll(DatabaseBenchmarks.all());
+        }
+
+        Pattern namePattern = Pattern.compile(filter);
+        List<BenchmarkResult> results = new ArrayList<>();
+
+        try {
+            for (Benchmark b : benchmarks) {
+                if (!namePattern.matcher(b.getName()).find()) continue;
+                BenchmarkResult result = runner.measure(b);
+                System.out.println(result);
+                results.add(result);
+            }
+        } finally {
+            if (withDatabase) {
+                DatabaseBenchmarks.cleanUp();
+                DBConnection.shutdown();
+            }
+        }
+
+        writeJson(results, out);
+        System.out.println("Results written to " + out.toAbsolutePath());
+
+        if (baseline != null && compare(results, baseline, threshold) > 0) {
+            System.exit(1);
+        }
+    }
+
+    // ================= MEASURE =================
+    BenchmarkResult measure(Benchmark benchmark) throws Exception {
+
+        benchmark.setUp();
+        try {
+            for (int i = 0; i < warmupIterations; i++) {
+                iteration(benchmark);
+            }
+
+            double[] throughput = new double[measurementIterations];
+            long totalOps = 0;
+            long totalBytes = 0;
+
+            for (int i = 0; i < measurementIterations; i++) {
+                long[] r = iteration(benchmark);
+                throughput[i] = r[0] * 1e9 / r[1];
+                totalOps += r[0];
+                totalBytes += r[2];
+            }
+
+            double mean = 0;
+            for (double t : throughput) mean += t;
+            mean /= throughput.length;
+
+            double variance = 0;
+            for (double t : throughput) variance += (t - mean) * (t - mean);
+            double stdDev = throughput.length > 1 ? Math.sqrt(variance / (throughput.length - 1)) : 0;
+
+            return new BenchmarkResult(benchmark.getName(), mean,
+                    mean == 0 ? 0 : stdDev / mean * 100,
+                    totalOps == 0 ? 0 : (double) totalBytes / totalOps,
+                    totalOps);
+        } finally {
+            benchmark.tearDown();
+        }
+    }
+
+    // Returns {operations, elapsedNanos, allocatedBytes}
+    private long[] iteration(Benchmark benchmark) throws Exception {
+
+        long deadline = System.nanoTime() + iterationMillis * 1_000_000;
+        long bytesBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long ops = 0;
+        int local = 0;
+
+        do {
+            Object result = benchmark.run();
+            local += result == null ? 0 : result.hashCode();
+            ops++;
+        } while (System.nanoTime() < deadline);
+
+        long elapsed = System.nanoTime() - start;
+        long bytes = allocatedBytes() - bytesBefore;
+        sink += local;
+        return new long[]{ops, elapsed, bytes};
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean sun) {
+            return sun.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    // ================= OUTPUT =================
+    private static void writeJson(List<BenchmarkResult> results, Path out) throws IOException {
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            json.append("  ").append(results.get(i).toJson());
+            json.append(i < results.size() - 1 ? ",\n" : "\n");
+        }
+        json.append("]\n");
+        Files.writeString(out, json, StandardCharsets.UTF_8);
+    }
+
+    /** Prints and counts benchmarks that got slower than the baseline by more than {@code threshold} percent. */
+    private static int compare(List<BenchmarkResult> results, Path baselineFile, double threshold)
+            throws IOException {
+
+        Map<String, Double> baseline = new HashMap<>();
+        Matcher m = RESULT_PATTERN.matcher(Files.readString(baselineFile, StandardCharsets.UTF_8));
+        while (m.find()) {
+            baseline.put(m.group(1), Double.parseDouble(m.group(2)));
+        }
+
+        int regressions = 0;
+        for (BenchmarkResult r : results) {
+            Double before = baseline.get(r.getName());
+            if (before == null || before == 0) continue;
+
+            double change = (r.getOpsPerSecond() - before) / before * 100;
+            if (change < -threshold) {
+                regressions++;
+                System.out.printf(java.util.Locale.ROOT, "REGRESSION %s: %.1f -> %.1f ops/s (%.1f%%)%n",
+                        r.getName(), before, r.getOpsPerSecond(), change);
+            }
+        }
+        return regressions;
+    }
+}
@@ -0,0 +1,180 @@
+package com.expensetracker.bench;
+
+import com.expensetracker.dao.TransactionRepository;
+import com.expensetracker.db.DBConnection;
+import com.expensetracker.db.RollupTables;
+import com.expensetracker.exporter.TransactionExporter;
+import com.expensetracker.model.Granularity;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionFilter;
+import com.expensetracker.model.TransactionType;
+import com.expensetracker.service.TransactionService;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.expensetracker.bench.AggregationBenchmarks.benchmark;
+
+/**
+ * DAO and service hot paths against the configured database.
+ *
+ * All rows written here use categories starting with {@link #BENCH_CATEGORY}
+ * so {@link #cleanUp()} can remove them without touching real data.
+ */
+public final class DatabaseBenchmarks {
+
+    public static final String BENCH_CATEGORY = "__bench__";
+
+    private static final int SEED_ROWS = Integer.getInteger("bench.dbRows", 20_000);
+    private static final int BATCH = 100;
+
+    private DatabaseBenchmarks() {
+    }
+
+    static List<Benchmark> all() {
+        TransactionRepository dao = TransactionRepository.create();
+        TransactionService service = new TransactionService();
+        LocalDate today = LocalDate.of(2024, 12, 31);
+
+        return List.of(
+                seeded("insert.single", () -> {
+                    dao.addTransaction(newRow(0));
+                    return 1;
+                }),
+                seeded("insert.batch100", () -> dao.addTransactions(newRows(BATCH))),
+
+                // Low to high selectivity
+                seeded("filter.none", () -> dao.filterTransactions(TransactionFilter.all()).size()),
+                seeded("filter.type", () -> dao.filterTransactions(
+                        TransactionFilter.all().withType(TransactionType.INCOME)).size()),
+                seeded("filter.category", () -> dao.filterTransactions(
+                        TransactionFilter.all().withCategory(BENCH_CATEGORY + "3")).size()),
+                seeded("filter.month+category+type", () -> dao.filterTransactions(TransactionFilter.all()
+                        .withDateRange(today.withDayOfMonth(1), today)
+                        .withCategory(BENCH_CATEGORY + "3")
+                        .withType(TransactionType.EXPENSE)).size()),
+                seeded("filter.amountRange", () -> dao.filterTransactions(
+                        TransactionFilter.all().withAmountRange(100L, 120L)).size()),
+                seeded("filter.categoriesIn3+amount", () -> dao.filterTransactions(TransactionFilter.all()
+                        .withCategories(List.of(BENCH_CATEGORY + "1", BENCH_CATEGORY + "2", BENCH_CATEGORY + "3"))
+                        .withAmountRange(400L, null)).size()),
+                seeded("filter.top50ByAmount", () -> dao.filterTransactions(TransactionFilter.all()
+                        .withSort(TransactionFilter.Sort.AMOUNT_DESC)
+                        .withLimit(50)).size()),
+
+                seeded("read.getAllTransactions", () -> dao.getAllTransactions().size()),
+                seeded("read.forEachTransaction", () -> {
+                    int[] count = new int[1];
+                    dao.forEachTransaction(t -> count[0]++);
+                    return count[0];
+                }),
+
+                // Formatting on one worker against one per core
+                seeded("export.csv.serial", () -> exportTo(
+                        new TransactionExporter(service, 5000, 1), ".csv")),
+                seeded("export.csv.parallel", () -> exportTo(new TransactionExporter(service), ".csv")),
+                seeded("export.xlsx.parallel", () -> exportTo(new TransactionExporter(service), ".xlsx")),
+
+                seeded("summary.sql", () -> dao.summarize(null, null, null)),
+                seeded("summary.service", service::getSummary),
+
+                // Five years by month from the rollups, against grouping the ledger
+                seeded("trend.monthly5y.rollup", () -> service.getTrend(
+                        Granularity.MONTH, today.minusYears(5).plusDays(1), today, TransactionType.EXPENSE)),
+                seeded("trend.monthly5y.scan", () -> {
+                    Map<YearMonth, Long> months = new HashMap<>();
+                    dao.forEachTransaction(t -> {
+                        if (t.getType() == TransactionType.EXPENSE) {
+                            months.merge(YearMonth.from(t.getDate()), t.getAmount(), Long::sum);
+                        }
+                    });
+                    return months;
+                })
+        );
+    }
+
+    private static long exportTo(TransactionExporter exporter, String extension) throws Exception {
+        Path file = Files.createTempFile("bench-export", extension);
+        try {
+            return exporter.export(TransactionFilter.all(), file).getRowsWritten();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // ================= FIXTURE =================
+    private static boolean seeded;
+
+    private static Benchmark seeded(String name, AggregationBenchmarks.ThrowingSupplier body) {
+        Benchmark inner = benchmark("db." + name, body);
+        return new Benchmark() {
+            @Override
+            public String getName() {
+                return inner.getName();
+            }
+
+            @Override
+            public boolean requiresDatabase() {
+                return true;
+            }
+
+            @Override
+            public void setUp() throws Exception {
+                seed();
+            }
+
+            @Override
+            public Object run() throws Exception {
+                return inner.run();
+            }
+        };
+    }
+
+    static synchronized void seed() throws SQLException {
+        if (seeded) return;
+        cleanUp();
+        TransactionRepository.create().addTransactions(newRows(SEED_ROWS));
+        seeded = true;
+    }
+
+    public static void cleanUp() throws SQLException {
+        // Bench categories have their own rollup rows, so those go with them.
+        // '_' is a LIKE wildcard, escaped so only the bench prefix matches
+        String benchIds = "category_id IN (SELECT id FROM categories WHERE name LIKE ? ESCAPE '!')";
+        String prefix = BENCH_CATEGORY.replace("_", "!_") + "%";
+        try (Connection con = DBConnection.getConnection()) {
+            for (String table : new String[]{"transactions", RollupTables.DAILY, RollupTables.MONTHLY}) {
+                try (PreparedStatement ps = con.prepareStatement("DELETE FROM " + table + " WHERE " + benchIds)) {
+                    ps.setString(1, prefix);
+                    ps.executeUpdate();
+                }
+            }
+        }
+    }
+
+    private static List<Transaction> newRows(int count) {
+        List<Transaction> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(newRow(i));
+        }
+        return rows;
+    }
+
+    private static Transaction newRow(int i) {
+        return new Transaction(
+                10 + (i % 500),
+                LocalDate.of(2020, 1, 1).plusDays(i % (5 * 365)),
+                BENCH_CATEGORY + (i % 10),
+                i % 10 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE,
+                "bench row " + i);
+    }
+}
@@ -0,0 +1,73 @@
+package com.expensetracker.dao;
+
+import com.expensetracker.bench.Benchmark;
+
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Row mapping cost, measured against an in-memory ResultSet stub.
+ * Lives in the dao package to reach the package-private mapper.
+ *
+ * {@code mapper.stubBaseline} reads the same columns without building a
+ * Transaction; subtract it from {@code mapper.mapRowToTransaction} to get
+ * the mapper's own time and allocation.
+ */
+public final class MapperBenchmarks {
+
+    private MapperBenchmarks() {
+    }
+
+    public static List<Benchmark> all() {
+        TransactionDAO dao = new TransactionDAO();
+        ResultSet row = stubRow();
+
+        return List.of(
+                benchmark("mapper.stubBaseline", () -> {
+                    row.getInt("id");
+                    row.getLong("amount_minor");
+                    row.getDate("date");
+                    row.getString("category");
+                    row.getString("type");
+                    return row.getString("notes");
+                }),
+                benchmark("mapper.mapRowToTransaction", () -> dao.mapRowToTransaction(row))
+        );
+    }
+
+    private static ResultSet stubRow() {
+        Date date = Date.valueOf(LocalDate.of(2024, 3, 15));
+        return (ResultSet) Proxy.newProxyInstance(
+                MapperBenchmarks.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getInt" -> 42;
+                    case "getLong" -> 12345L;
+                    case "getDate" -> date;
+                    case "getString" -> switch ((String) args[0]) {
+                        case "type" -> "EXPENSE";
+                        case "category" -> "Food";
+                        default -> "Lunch with the team";
+                    };
+                    case "wasNull" -> false;
+                    default -> null;
+                });
+    }
+
+    private static Benchmark benchmark(String name, java.util.concurrent.Callable<Object> body) {
+        return new Benchmark() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Object run() throws Exception {
+                return body.call();
+            }
+        };
+    }
+}
@@ -0,0 +1,216 @@
+package com.expensetracker.dao;
+
+import com.expensetracker.db.DBConnection;
+import com.expensetracker.model.Category;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process dictionary of the {@code categories} table.
+ *
+ * Rows store an integer {@code category_id}; the DAO maps it back through
+ * {@link #get(int)}, an array lookup that returns the same interned
+ * {@link Category} every time. New names are inserted on first use.
+ *
+ * Names are matched by {@link Category#key}, so "food" finds "Food". The
+ * MySQL column compares names the same way, but SQLite's is case-sensitive,
+ * so a table may hold "Food" and "food" under separate ids: new rows go to
+ * the lowest, and {@link #findAll} returns every one of them for filters.
+ * A name found in neither the dictionary nor the table is remembered as
+ * missing until this registry next writes or reloads, so repeated lookups
+ * of it do not go to the database.
+ */
+public final class CategoryRegistry {
+
+    private static final CategoryRegistry SHARED = new CategoryRegistry();
+
+    private static final String SELECT_ALL_SQL = "SELECT id, name FROM categories ORDER BY id";
+    private static final String SELECT_BY_NAME_SQL = "SELECT id, name FROM categories WHERE name = ?";
+    private static final String INSERT_SQL = "INSERT INTO categories (name) VALUES (?)";
+
+    // Indexed by id; replaced (never mutated) on reload so readers need no lock
+    private volatile Category[] byId = new Category[0];
+    // Keyed by Category.key; may hold extra keys the database collation treats as equal
+    private final Map<String, Category> byName = new ConcurrentHashMap<>();
+    private final Set<String> missing = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean loaded;
+
+    public static CategoryRegistry shared() {
+        return SHARED;
+    }
+
+    // ================== LOOKUP ==================
+    public Category get(int id) throws SQLException {
+        Category[] table = byId;
+        if (id >= 0 && id < table.length && table[id] != null) {
+            return table[id];
+        }
+
+        // Added by another process since the last load
+        reload();
+        table = byId;
+        if (id >= 0 && id < table.length && table[id] != null) {
+            return table[id];
+        }
+        throw new SQLException("Unknown category id: " + id);
+    }
+
+    /** Returns the category with this name, or {@code null} if there is none. */
+    public Category find(String name) throws SQLException {
+        String trimmed = normalize(name);
+        String key = Category.key(trimmed);
+        ensureLoaded();
+
+        Category category = byName.get(key);
+        if (category != null || missing.contains(key)) {
+            return category;
+        }
+
+        // Possibly added by another process since the last load
+        category = lookup(trimmed);
+        if (category == null) missing.add(key);
+        return category;
+    }
+
+    /**
+     * Every category this name matches: the one {@link #find} returns and
+     * any others with the same {@link Category#key}. Empty if there is none.
+     */
+    public List<Category> findAll(String name) throws SQLException {
+        Category category = find(name);
+        if (category == null) return List.of();
+
+        String key = Category.key(name);
+        List<Category> all = new ArrayList<>(1);
+        for (Category c : byId) {
+            if (c != null && (c == category || Category.key(c.getName()).equals(key))) all.add(c);
+        }
+        return all;
+    }
+
+    /** Returns the category with this name, inserting it if it is new. */
+    public Category resolve(String name) throws SQLException {
+        String trimmed = normalize(name);
+        ensureLoaded();
+
+        Category category = byName.get(Category.key(trimmed));
+        return category != null ? category : insert(trimmed);
+    }
+
+    /** Resolves every distinct name up front, before a write transaction starts. */
+    public void resolveAll(Collection<String> names) throws SQLException {
+        for (String name : names) {
+            resolve(name);
+        }
+    }
+
+    public List<Category> getAll() throws SQLException {
+        ensureLoaded();
+        List<Category> all = new ArrayList<>();
+        for (Category category : byId) {
+            if (category != null) all.add(category);
+        }
+        all.sort(Comparator.comparing(Category::getName, String.CASE_INSENSITIVE_ORDER));
+        return all;
+    }
+
+    // ================== LOAD ==================
+    private void ensureLoaded() throws SQLException {
+        if (!loaded) {
+            reload();
+        }
+    }
+
+    public synchronized void reload() throws SQLException {
+        try (Connection con = DBConnection.getConnection();
+             Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery(SELECT_ALL_SQL)) {
+
+            while (rs.next()) {
+                register(rs.getInt("id"), rs.getString("name"));
+            }
+        }
+        missing.clear();
+        loaded = true;
+    }
+
+    // One row by name, compared by the database's own collation
+    private Category lookup(String name) throws SQLException {
+        try (Connection con = DBConnection.getConnection();
+             PreparedStatement ps = con.prepareStatement(SELECT_BY_NAME_SQL)) {
+
+            ps.setString(1, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+                Category category = register(rs.getInt("id"), rs.getString("name"));
+                // The collation may fold more than case, e.g. accents; remember this spelling too
+                byName.putIfAbsent(Category.key(name), category);
+                return category;
+            }
+        }
+    }
+
+    private synchronized Category insert(String name) throws SQLException {
+        Category existing = byName.get(Category.key(name));
+        if (existing != null) return existing;
+
+        missing.clear();
+        try (Connection con = DBConnection.getConnection();
+             PreparedStatement ps = con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+
+            ps.setString(1, name);
+            ps.executeUpdate();
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                if (rs.next()) {
+                    return register(rs.getInt(1), name);
+                }
+            }
+        } catch (SQLException e) {
+            // Another process may have inserted the same name first, or one the collation treats as equal
+            existing = lookup(name);
+            if (existing != null) return existing;
+            throw e;
+        }
+
+        existing = lookup(name);
+        if (existing == null) {
+            throw new SQLException("Category was not created: " + name);
+        }
+        return existing;
+    }
+
+    private synchronized Category register(int id, String name) {
+        Category[] table = byId;
+        if (id < table.length && table[id] != null) {
+            return table[id];
+        }
+
+        Category category = new Category(id, name);
+        Category[] next = id < table.length ? table.clone() : Arrays.copyOf(table, Math.max(id + 1, table.length * 2));
+        next[id] = category;
+        byId = next;
+        // Lowest id wins if the table holds names that differ only in case (possible on SQLite)
+        byName.putIfAbsent(Category.key(name), category);
+        return category;
+    }
+
+    private static String normalize(String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Category is required");
+        }
+        return name.trim();
+    }
+}
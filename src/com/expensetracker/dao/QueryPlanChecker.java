@@ -0,0 +1,137 @@
+package com.expensetracker.dao;
+
+import com.expensetracker.db.DBConnection;
+import com.expensetracker.model.TransactionFilter;
+import com.expensetracker.model.TransactionType;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Runs {@code EXPLAIN} on every query shape the DAO issues and reports the
+ * ones that scan the whole table or sort in a temporary file.
+ *
+ * Intended as a startup/diagnostic check after schema changes, enabled with
+ * {@code -Dexpensetracker.explain=true}.
+ */
+public class QueryPlanChecker {
+
+    private static final Logger LOG = Logger.getLogger(QueryPlanChecker.class.getName());
+
+    private static final Date SAMPLE_DATE = Date.valueOf(LocalDate.of(2000, 1, 1));
+
+    // ================== CHECK ==================
+    public List<String> check() throws SQLException {
+
+        List<String> warnings = new ArrayList<>();
+
+        try (Connection con = DBConnection.getConnection()) {
+            for (Map.Entry<String, String> query : queryShapes().entrySet()) {
+                warnings.addAll(explain(con, query.getKey(), query.getValue()));
+            }
+        }
+        return warnings;
+    }
+
+    public void logWarnings() {
+        try {
+            List<String> warnings = check();
+            if (warnings.isEmpty()) {
+                LOG.info("All DAO query plans use an index");
+            }
+            warnings.forEach(LOG::warning);
+        } catch (SQLException e) {
+            LOG.warning("Query plan check failed: " + e.getMessage());
+        }
+    }
+
+    // ================== QUERY SHAPES ==================
+    private Map<String, String> queryShapes() {
+
+        Map<String, String> shapes = new LinkedHashMap<>();
+        shapes.put("selectAll", TransactionDAO.SELECT_ALL_SQL);
+        shapes.put("firstPage", TransactionDAO.FIRST_PAGE_SQL);
+        shapes.put("nextPage", TransactionDAO.NEXT_PAGE_SQL);
+        shapes.put("range", TransactionDAO.RANGE_SQL);
+        shapes.put("byId", TransactionDAO.SELECT_BY_ID_SQL);
+
+        // Every combination of date range, category and type, then the
+        // amount, multi-category, notes and sort variants on top
+        LocalDate day = SAMPLE_DATE.toLocalDate();
+        for (int mask = 0; mask < 16; mask++) {
+            TransactionFilter filter = TransactionFilter.all()
+                    .withDateRange((mask & 1) != 0 ? day : null, (mask & 2) != 0 ? day : null)
+                    .withType((mask & 8) != 0 ? TransactionType.EXPENSE : null);
+            addFilterShape(shapes, filter, (mask & 4) != 0 ? 1 : 0);
+        }
+
+        TransactionFilter amounts = TransactionFilter.all().withAmountRange(1L, 2L);
+        addFilterShape(shapes, amounts, 0);
+        addFilterShape(shapes, amounts.withType(TransactionType.EXPENSE), 1);
+        addFilterShape(shapes, TransactionFilter.all().withDateRange(day, day), 4);
+        addFilterShape(shapes, TransactionFilter.all().withDateRange(day, day).withNotesContaining("x"), 0);
+        for (TransactionFilter.Sort sort : TransactionFilter.Sort.values()) {
+            addFilterShape(shapes, TransactionFilter.all().withSort(sort).withLimit(50), 0);
+        }
+        return shapes;
+    }
+
+    private void addFilterShape(Map<String, String> shapes, TransactionFilter filter, int categoryParams) {
+        shapes.put("filter[" + TransactionDAO.filterShapeName(filter, categoryParams) + "]",
+                TransactionDAO.filterSql(filter, categoryParams));
+    }
+
+    // ================== EXPLAIN ==================
+    private List<String> explain(Connection con, String name, String sql) throws SQLException {
+
+        List<String> warnings = new ArrayList<>();
+
+        try (PreparedStatement ps = con.prepareStatement("EXPLAIN " + sql)) {
+            bindSamples(ps, sql);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String access = rs.getString("type");
+                    String key = rs.getString("key");
+                    String extra = rs.getString("Extra");
+
+                    if ("ALL".equalsIgnoreCase(access)) {
+                        warnings.add(name + ": full table scan (rows=" + rs.getLong("rows") + ")");
+                    } else if (extra != null && extra.contains("Using filesort")) {
+                        warnings.add(name + ": filesort using key " + key);
+                    }
+                }
+            }
+        }
+        return warnings;
+    }
+
+    // Fills every placeholder with a value of the right type for its column
+    private void bindSamples(PreparedStatement ps, String sql) throws SQLException {
+
+        String[] parts = sql.split("\\?", -1);
+        for (int i = 1; i < parts.length; i++) {
+            String before = parts[i - 1].toLowerCase();
+
+            if (before.endsWith("date >= ") || before.endsWith("date <= ")
+                    || before.endsWith("date < ") || before.endsWith("date = ")) {
+                ps.setDate(i, SAMPLE_DATE);
+            } else if (before.endsWith("type = ")) {
+                ps.setString(i, "EXPENSE");
+            } else if (before.endsWith("like ")) {
+                ps.setString(i, "%x%");
+            } else {
+                ps.setInt(i, 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.expensetracker.dao;
+
+import com.expensetracker.db.DatabaseDialect;
+import com.expensetracker.db.RollupTables;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Net change to the rollup tables from one write transaction.
+ *
+ * Rows are added with sign +1 and removed with -1. Changes to the same
+ * (period, category, type) are merged first, so a large batch touches each
+ * rollup row once.
+ *
+ * Rows are written in key order, so writers touching overlapping rows lock
+ * them in the same order and cannot deadlock on MySQL.
+ */
+final class RollupDelta {
+
+    private static final List<String> KEY_COLUMNS = List.of("period_start", "category_id", "type");
+    private static final List<String> VALUE_COLUMNS = List.of("total_minor", "cnt");
+
+    private final Map<Key, long[]> daily = new TreeMap<>();
+    private final Map<Key, long[]> monthly = new TreeMap<>();
+
+    void add(Transaction t, int categoryId, int sign) {
+        long amount = sign * t.getAmount();
+        merge(daily, new Key(t.getDate(), categoryId, t.getType()), amount, sign);
+        merge(monthly, new Key(t.getDate().withDayOfMonth(1), categoryId, t.getType()), amount, sign);
+    }
+
+    private static void merge(Map<Key, long[]> deltas, Key key, long amount, int count) {
+        long[] d = deltas.computeIfAbsent(key, k -> new long[2]);
+        d[0] += amount;
+        d[1] += count;
+    }
+
+    // ================== APPLY ==================
+    /** Writes the merged changes on {@code con}, inside the caller's transaction. */
+    void apply(Connection con, DatabaseDialect dialect, int batchSize) throws SQLException {
+        apply(con, dialect, RollupTables.DAILY, daily, batchSize);
+        apply(con, dialect, RollupTables.MONTHLY, monthly, batchSize);
+    }
+
+    private static void apply(Connection con, DatabaseDialect dialect, String table,
+                              Map<Key, long[]> deltas, int batchSize) throws SQLException {
+
+        boolean removed = false;
+
+        try (PreparedStatement ps = con.prepareStatement(
+                dialect.insertOrAddSql(table, KEY_COLUMNS, VALUE_COLUMNS))) {
+
+            int queued = 0;
+            for (Map.Entry<Key, long[]> e : deltas.entrySet()) {
+                long[] d = e.getValue();
+                if (d[0] == 0 && d[1] == 0) continue; // an update that moved nothing
+                removed |= d[1] < 0;
+
+                bindKey(ps, e.getKey());
+                ps.setLong(4, d[0]);
+                ps.setLong(5, d[1]);
+                ps.addBatch();
+
+                if (++queued % batchSize == 0) ps.executeBatch();
+            }
+            if (queued % batchSize != 0) ps.executeBatch();
+        }
+
+        // Periods whose last row went away are dropped rather than kept at zero
+        if (removed) {
+            try (PreparedStatement ps = con.prepareStatement("DELETE FROM " + table
+                    + " WHERE period_start = ? AND category_id = ? AND type = ? AND cnt = 0")) {
+
+                int queued = 0;
+                for (Map.Entry<Key, long[]> e : deltas.entrySet()) {
+                    if (e.getValue()[1] >= 0) continue;
+                    bindKey(ps, e.getKey());
+                    ps.addBatch();
+
+                    if (++queued % batchSize == 0) ps.executeBatch();
+                }
+                if (queued % batchSize != 0) ps.executeBatch();
+            }
+        }
+    }
+
+    private static void bindKey(PreparedStatement ps, Key key) throws SQLException {
+        ps.setDate(1, Date.valueOf(key.period));
+        ps.setInt(2, key.categoryId);
+        ps.setString(3, key.type.name());
+    }
+
+    // Ordered like the tables' primary key: period, category, type
+    private static final class Key implements Comparable<Key> {
+
+        private final LocalDate period;
+        private final int categoryId;
+        private final TransactionType type;
+
+        Key(LocalDate period, int categoryId, TransactionType type) {
+            this.period = period;
+            this.categoryId = categoryId;
+            this.type = type;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int c = period.compareTo(other.period);
+            if (c == 0) c = Integer.compare(categoryId, other.categoryId);
+            if (c == 0) c = type.name().compareTo(other.type.name());
+            return c;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return categoryId == other.categoryId && type == other.type && period.equals(other.period);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(period, categoryId, type);
+        }
+    }
+}
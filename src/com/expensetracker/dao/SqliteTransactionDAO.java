@@ -0,0 +1,38 @@
+package com.expensetracker.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * {@link TransactionRepository} for the embedded SQLite engine.
+ *
+ * The SQL is shared with {@link TransactionDAO}. The one difference is
+ * how batch insert keys are read back.
+ */
+public class SqliteTransactionDAO extends TransactionDAO {
+
+    /**
+     * The SQLite driver only reports the last rowid of a batch. Batches run
+     * inside one transaction and SQLite allows a single writer, so the ids
+     * of the batch are the {@code rows} consecutive values ending there.
+     */
+    @Override
+    protected int[] readBatchKeys(PreparedStatement ps, int rows) throws SQLException {
+
+        int last;
+        try (Statement st = ps.getConnection().createStatement();
+             ResultSet rs = st.executeQuery("SELECT last_insert_rowid()")) {
+            last = rs.next() ? rs.getInt(1) : 0;
+        }
+        // No rowid to count back from: report no keys rather than made-up ones
+        if (last < rows) return new int[0];
+
+        int[] ids = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            ids[i] = last - rows + 1 + i;
+        }
+        return ids;
+    }
+}
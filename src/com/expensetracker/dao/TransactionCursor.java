@@ -0,0 +1,31 @@
+package com.expensetracker.dao;
+
+import java.time.LocalDate;
+
+/**
+ * Keyset position in the ledger's (date DESC, id DESC) order.
+ * A page starts strictly after the row the cursor points at.
+ */
+public final class TransactionCursor {
+
+    private final LocalDate date;
+    private final int id;
+
+    public TransactionCursor(LocalDate date, int id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return date + "#" + id;
+    }
+}
@@ -1,109 +1,787 @@
 package com.expensetracker.dao;
 
 import com.expensetracker.db.DBConnection;
+import com.expensetracker.db.RollupTables;
+import com.expensetracker.db.StatementCacheStats;
+import com.expensetracker.diagnostics.SlowQueryLog;
+import com.expensetracker.metrics.Metrics;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Granularity;
 import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionFilter;
+import com.expensetracker.model.TransactionSummary;
 import com.expensetracker.model.TransactionType;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * JDBC implementation of {@link TransactionRepository}, written against
+ * MySQL. Engine-specific differences are isolated in overridable hooks.
+ */
+public class TransactionDAO implements TransactionRepository {
+
+    private static final int DEFAULT_BATCH_SIZE =
+            Integer.getInteger("expensetracker.batch.size", 500);
+
+    private static final String INSERT_SQL = """
+            INSERT INTO transactions (amount_minor, date, category_id, type, notes, write_key)
+            VALUES (?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final String UPDATE_SQL = """
+            UPDATE transactions
+            SET amount_minor = ?, date = ?, category_id = ?, type = ?, notes = ?
+            WHERE id = ?
+        """;
+
+    private static final String DELETE_SQL = "DELETE FROM transactions WHERE id = ?";
+
+    static final String SELECT_ALL_SQL =
+            "SELECT * FROM transactions ORDER BY date DESC, id DESC";
+
+    static final String FIRST_PAGE_SQL =
+            "SELECT * FROM transactions ORDER BY date DESC, id DESC LIMIT ?";
+
+    static final String NEXT_PAGE_SQL = """
+            SELECT * FROM transactions
+            WHERE date < ? OR (date = ? AND id < ?)
+            ORDER BY date DESC, id DESC
+            LIMIT ?
+        """;
+
+    // Rows per round-trip when streaming with a server-side cursor
+    private static final int STREAM_FETCH_SIZE =
+            Integer.getInteger("expensetracker.stream.fetchSize", 1000);
+
+    static final String COUNT_SQL = "SELECT COUNT(*) FROM transactions";
+
+    static final String RANGE_SQL =
+            "SELECT * FROM transactions ORDER BY date DESC, id DESC LIMIT ? OFFSET ?";
+
+    static final String SELECT_BY_ID_SQL = "SELECT * FROM transactions WHERE id = ?";
+
+    static final String DAILY_TOTALS_SQL = """
+            SELECT period_start AS date, type, category_id, total_minor AS total, cnt
+            FROM rollup_daily
+        """;
+
+    private static final LongAdder ROWS_MAPPED = Metrics.counter("dao.rowsMapped");
+    private static final LongAdder BYTES_FETCHED = Metrics.counter("dao.bytesFetched");
+
+    // id, amount_minor, date and category_id
+    private static final int ROW_FIXED_BYTES = 4 + 8 + 3 + 4;
+
+    // Filter SQL by shape name; see filterSql()
+    private static final Map<String, String> FILTER_SQL = new ConcurrentHashMap<>();
 
-public class TransactionDAO {
+    private final CategoryRegistry categories = CategoryRegistry.shared();
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than zero");
+        }
+        this.batchSize = batchSize;
+    }
 
     // ================== INSERT ==================
+    @Override
     public void addTransaction(Transaction transaction) throws SQLException {
 
-        String sql = """
-            INSERT INTO transactions (amount, date, category, type, notes)
-            VALUES (?, ?, ?, ?, ?)
-        """;
+        int categoryId = categories.resolve(transaction.getCategory()).getId();
 
-        try (Connection con = DBConnection.getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
+        try (Connection con = DBConnection.getConnection()) {
+            con.setAutoCommit(false);
 
-            ps.setDouble(1, transaction.getAmount());
-            ps.setDate(2, Date.valueOf(transaction.getDate()));
-            ps.setString(3, transaction.getCategory());
-            ps.setString(4, transaction.getType().name());
-            ps.setString(5, transaction.getNotes());
+            try (PreparedStatement ps = con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
-            ps.executeUpdate();
+                bindTransaction(ps, transaction);
+                ps.setString(6, transaction.getWriteKey());
+                ps.executeUpdate();
+
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    if (rs.next()) transaction.setId(rs.getInt(1));
+                }
+
+                RollupDelta rollups = new RollupDelta();
+                rollups.add(transaction, categoryId, 1);
+                rollups.apply(con, DBConnection.getDialect(), batchSize);
+
+                con.commit();
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            }
         }
     }
 
     // ================== UPDATE ==================
-    public void updateTransaction(Transaction transaction) throws SQLException {
+    @Override
+    public Transaction updateTransaction(Transaction transaction) throws SQLException {
 
-        String sql = """
-            UPDATE transactions
-            SET amount = ?, date = ?, category = ?, type = ?, notes = ?
-            WHERE id = ?
-        """;
+        categories.resolve(transaction.getCategory());
 
-        try (Connection con = DBConnection.getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
+        try (Connection con = DBConnection.getConnection()) {
+            con.setAutoCommit(false);
+
+            try (PreparedStatement ps = con.prepareStatement(UPDATE_SQL)) {
+
+                Transaction old = lockRows(con, new int[]{transaction.getId()}).get(transaction.getId());
 
-            ps.setDouble(1, transaction.getAmount());
-            ps.setDate(2, Date.valueOf(transaction.getDate()));
-            ps.setString(3, transaction.getCategory());
-            ps.setString(4, transaction.getType().name());
-            ps.setString(5, transaction.getNotes());
-            ps.setInt(6, transaction.getId());
+                bindTransaction(ps, transaction);
+                ps.setInt(6, transaction.getId());
+                ps.executeUpdate();
 
-            ps.executeUpdate();
+                if (old != null) {
+                    RollupDelta rollups = new RollupDelta();
+                    addRollup(rollups, old, -1);
+                    addRollup(rollups, transaction, 1);
+                    rollups.apply(con, DBConnection.getDialect(), batchSize);
+                }
+
+                con.commit();
+                return old;
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            }
         }
     }
 
     // ================== DELETE ==================
-    public void deleteTransaction(int id) throws SQLException {
+    @Override
+    public Transaction deleteTransaction(int id) throws SQLException {
 
-        String sql = "DELETE FROM transactions WHERE id = ?";
+        try (Connection con = DBConnection.getConnection()) {
+            con.setAutoCommit(false);
 
-        try (Connection con = DBConnection.getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
+            try (PreparedStatement ps = con.prepareStatement(DELETE_SQL)) {
 
-            ps.setInt(1, id);
-            ps.executeUpdate();
+                Transaction old = lockRows(con, new int[]{id}).get(id);
+
+                ps.setInt(1, id);
+                ps.executeUpdate();
+
+                if (old != null) {
+                    RollupDelta rollups = new RollupDelta();
+                    addRollup(rollups, old, -1);
+                    rollups.apply(con, DBConnection.getDialect(), batchSize);
+                }
+
+                con.commit();
+                return old;
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            }
         }
     }
 
+    // ================== BATCH INSERT ==================
+    /**
+     * Inserts all transactions in one database transaction, sending them in
+     * JDBC batches of {@link #getBatchSize()} rows. Generated ids are set on
+     * the given objects and returned in iteration order.
+     */
+    @Override
+    public int[] addTransactions(Collection<Transaction> transactions) throws SQLException {
+
+        int[] keys = new int[transactions.size()];
+        if (keys.length == 0) return keys;
+
+        resolveCategories(transactions);
+
+        try (Connection con = DBConnection.getConnection()) {
+            con.setAutoCommit(false);
+
+            try (PreparedStatement ps =
+                         con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+
+                List<Transaction> chunk = new ArrayList<>(Math.min(batchSize, keys.length));
+                int keyIndex = 0;
+
+                for (Transaction t : transactions) {
+                    bindTransaction(ps, t);
+                    ps.setString(6, t.getWriteKey());
+                    ps.addBatch();
+                    chunk.add(t);
+
+                    if (chunk.size() == batchSize) {
+                        keyIndex = flushInsertBatch(ps, chunk, keys, keyIndex);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    flushInsertBatch(ps, chunk, keys, keyIndex);
+                }
+
+                RollupDelta rollups = new RollupDelta();
+                for (Transaction t : transactions) addRollup(rollups, t, 1);
+                rollups.apply(con, DBConnection.getDialect(), batchSize);
+
+                con.commit();
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            }
+        }
+        return keys;
+    }
+
+    // ================== BATCH UPDATE ==================
+    @Override
+    public int[] updateTransactions(Collection<Transaction> transactions, Map<Integer, Transaction> previous)
+            throws SQLException {
+
+        int[] counts = new int[transactions.size()];
+        if (counts.length == 0) return counts;
+
+        resolveCategories(transactions);
+
+        try (Connection con = DBConnection.getConnection()) {
+            con.setAutoCommit(false);
+
+            try (PreparedStatement ps = con.prepareStatement(UPDATE_SQL)) {
+
+                Map<Integer, Transaction> old =
+                        lockRows(con, transactions.stream().mapToInt(Transaction::getId).toArray());
+                RollupDelta rollups = new RollupDelta();
+
+                int queued = 0;
+                int done = 0;
+                for (Transaction t : transactions) {
+                    bindTransaction(ps, t);
+                    ps.setInt(6, t.getId());
+                    ps.addBatch();
+
+                    Transaction before = old.get(t.getId());
+                    if (before != null) {
+                        addRollup(rollups, before, -1);
+                        addRollup(rollups, t, 1);
+                    }
+
+                    if (++queued - done == batchSize || queued == counts.length) {
+                        int[] result = ps.executeBatch();
+                        System.arraycopy(result, 0, counts, done, result.length);
+                        done = queued;
+                    }
+                }
+
+                rollups.apply(con, DBConnection.getDialect(), batchSize);
+                con.commit();
+                if (previous != null) previous.putAll(old);
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            }
+        }
+        return counts;
+    }
+
+    // ================== BATCH DELETE ==================
+    @Override
+    public int[] deleteTransactions(int[] ids, Map<Integer, Transaction> previous) throws SQLException {
+
+        int[] counts = new int[ids.length];
+        if (ids.length == 0) return counts;
+
+        try (Connection con = DBConnection.getConnection()) {
+            con.setAutoCommit(false);
+
+            try (PreparedStatement ps = con.prepareStatement(DELETE_SQL)) {
+
+                Map<Integer, Transaction> old = lockRows(con, ids);
+                RollupDelta rollups = new RollupDelta();
+                for (Transaction t : old.values()) addRollup(rollups, t, -1);
+
+                int done = 0;
+                for (int i = 0; i < ids.length; i++) {
+                    ps.setInt(1, ids[i]);
+                    ps.addBatch();
+
+                    if (i + 1 - done == batchSize || i == ids.length - 1) {
+                        int[] result = ps.executeBatch();
+                        System.arraycopy(result, 0, counts, done, result.length);
+                        done = i + 1;
+                    }
+                }
+
+                rollups.apply(con, DBConnection.getDialect(), batchSize);
+                con.commit();
+                if (previous != null) previous.putAll(old);
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            }
+        }
+        return counts;
+    }
+
     // ================== SELECT ALL ==================
+    @Override
     public List<Transaction> getAllTransactions() throws SQLException {
 
         List<Transaction> transactions = new ArrayList<>();
+        forEachTransaction(transactions::add);
+        return transactions;
+    }
+
+    // ================== SELECT BY ID ==================
+    @Override
+    public Transaction findById(int id) throws SQLException {
+
+        try (Connection con = DBConnection.getConnection();
+             PreparedStatement ps = con.prepareStatement(SELECT_BY_ID_SQL)) {
+
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? mapRowToTransaction(rs) : null;
+            }
+        }
+    }
+
+    /** Loads the given rows with one IN query per batch-size chunk; missing ids are skipped. */
+    @Override
+    public Map<Integer, Transaction> findByIds(int[] ids) throws SQLException {
+
+        if (ids.length == 0) return new HashMap<>();
+
+        try (Connection con = DBConnection.getConnection()) {
+            return selectByIds(con, ids, "");
+        }
+    }
+
+    @Override
+    public Map<String, Integer> findWriteKeys(Collection<String> writeKeys) throws SQLException {
+
+        Map<String, Integer> found = new HashMap<>();
+        if (writeKeys.isEmpty()) return found;
+
+        List<String> keys = new ArrayList<>(writeKeys);
+        try (Connection con = DBConnection.getConnection()) {
+            for (int from = 0; from < keys.size(); from += batchSize) {
+                int to = Math.min(keys.size(), from + batchSize);
+
+                StringBuilder sql = new StringBuilder("SELECT id, write_key FROM transactions WHERE write_key IN (");
+                for (int i = from; i < to; i++) {
+                    sql.append(i == from ? "?" : ", ?");
+                }
+                sql.append(")");
+
+                try (PreparedStatement ps = con.prepareStatement(sql.toString())) {
+                    for (int i = from; i < to; i++) {
+                        ps.setString(i - from + 1, keys.get(i));
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            found.put(rs.getString("write_key"), rs.getInt("id"));
+                        }
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    // Current rows of a write, locked until it commits so the rollup
+    // deltas subtract exactly what is being replaced
+    private Map<Integer, Transaction> lockRows(Connection con, int[] ids) throws SQLException {
+        return selectByIds(con, ids, DBConnection.getDialect().lockRowsClause());
+    }
+
+    private Map<Integer, Transaction> selectByIds(Connection con, int[] ids, String suffix) throws SQLException {
 
-        String sql = "SELECT * FROM transactions ORDER BY date DESC";
+        Map<Integer, Transaction> found = new HashMap<>();
+
+        for (int from = 0; from < ids.length; from += batchSize) {
+            int to = Math.min(ids.length, from + batchSize);
+
+            StringBuilder sql = new StringBuilder("SELECT * FROM transactions WHERE id IN (");
+            for (int i = from; i < to; i++) {
+                sql.append(i == from ? "?" : ", ?");
+            }
+            sql.append(")").append(suffix);
+
+            try (PreparedStatement ps = con.prepareStatement(sql.toString())) {
+                for (int i = from; i < to; i++) {
+                    ps.setInt(i - from + 1, ids[i]);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Transaction t = mapRowToTransaction(rs);
+                        found.put(t.getId(), t);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    // ================== KEYSET PAGE ==================
+    /**
+     * Returns up to {@code limit} rows that come after {@code after} in
+     * (date DESC, id DESC) order; pass {@code null} for the first page.
+     */
+    @Override
+    public TransactionPage findPage(TransactionCursor after, int limit) throws SQLException {
+
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page limit must be greater than zero");
+        }
+
+        List<Transaction> transactions = new ArrayList<>(limit);
 
         try (Connection con = DBConnection.getConnection();
-             PreparedStatement ps = con.prepareStatement(sql);
+             PreparedStatement ps = con.prepareStatement(after == null ? FIRST_PAGE_SQL : NEXT_PAGE_SQL)) {
+
+            int index = 1;
+            if (after != null) {
+                Date date = Date.valueOf(after.getDate());
+                ps.setDate(index++, date);
+                ps.setDate(index++, date);
+                ps.setInt(index++, after.getId());
+            }
+            // One extra row tells us whether another page exists
+            ps.setInt(index, limit + 1);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    transactions.add(mapRowToTransaction(rs));
+                }
+            }
+        }
+
+        TransactionCursor next = null;
+        if (transactions.size() > limit) {
+            transactions.remove(limit);
+            Transaction last = transactions.get(limit - 1);
+            next = new TransactionCursor(last.getDate(), last.getId());
+        }
+        return new TransactionPage(transactions, next);
+    }
+
+    // ================== COUNT / OFFSET RANGE ==================
+    @Override
+    public int countTransactions() throws SQLException {
+
+        try (Connection con = DBConnection.getConnection();
+             PreparedStatement ps = con.prepareStatement(COUNT_SQL);
              ResultSet rs = ps.executeQuery()) {
 
-            while (rs.next()) {
-                transactions.add(mapRowToTransaction(rs));
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Offset-based slice of the ledger order. Prefer {@link #findPage} when
+     * the preceding row is known; this is the fallback for random jumps.
+     */
+    @Override
+    public List<Transaction> findRange(int offset, int limit) throws SQLException {
+
+        List<Transaction> transactions = new ArrayList<>(limit);
+
+        try (Connection con = DBConnection.getConnection();
+             PreparedStatement ps = con.prepareStatement(RANGE_SQL)) {
+
+            ps.setInt(1, limit);
+            ps.setInt(2, offset);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    transactions.add(mapRowToTransaction(rs));
+                }
             }
         }
         return transactions;
     }
 
+    // ================== STREAMING ==================
+    /**
+     * Pushes every row to {@code action} as it is read from a forward-only
+     * cursor, without collecting the ledger in memory.
+     */
+    @Override
+    public void forEachTransaction(Consumer<Transaction> action) throws SQLException {
+
+        try (Connection con = DBConnection.getConnection();
+             PreparedStatement ps = prepareStreaming(con, SELECT_ALL_SQL);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                action.accept(mapRowToTransaction(rs));
+            }
+        }
+    }
+
+    /**
+     * Lazily reads the ledger. The stream holds a pooled connection until
+     * it is closed, so always use it in try-with-resources.
+     */
+    @Override
+    public Stream<Transaction> streamTransactions() throws SQLException {
+
+        Connection con = DBConnection.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs;
+        try {
+            ps = prepareStreaming(con, SELECT_ALL_SQL);
+            rs = ps.executeQuery();
+        } catch (SQLException e) {
+            closeQuietly(ps);
+            closeQuietly(con);
+            throw e;
+        }
+
+        final PreparedStatement statement = ps;
+        final ResultSet resultSet = rs;
+
+        Spliterator<Transaction> rows = new Spliterators.AbstractSpliterator<>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Transaction> action) {
+                try {
+                    if (!resultSet.next()) return false;
+                    action.accept(mapRowToTransaction(resultSet));
+                    return true;
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Failed to read transaction row", e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(rows, false).onClose(() -> {
+            closeQuietly(resultSet);
+            closeQuietly(statement);
+            closeQuietly(con);
+        });
+    }
+
+    private PreparedStatement prepareStreaming(Connection con, String sql) throws SQLException {
+        PreparedStatement ps = con.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        ps.setFetchSize(STREAM_FETCH_SIZE);
+        return ps;
+    }
+
+    private static void closeQuietly(AutoCloseable resource) {
+        if (resource == null) return;
+        try {
+            resource.close();
+        } catch (Exception e) {
+            // nothing useful to do while cleaning up
+        }
+    }
+
     // ================== FILTER ==================
-    public List<Transaction> filterTransactions(
+    /**
+     * Runs the whole filter in one query: every criterion, the order and the
+     * limit are compiled into SQL, so only matching rows are read. Category
+     * names are translated to ids first; names that do not exist are dropped.
+     */
+    @Override
+    public List<Transaction> filterTransactions(TransactionFilter filter) throws SQLException {
+        List<Transaction> transactions = new ArrayList<>();
+        queryFiltered(filter, false, transactions::add);
+        return transactions;
+    }
+
+    /**
+     * Same query as {@link #filterTransactions}, read from a forward-only
+     * cursor and pushed to {@code action} row by row.
+     */
+    @Override
+    public void forEachFiltered(TransactionFilter filter, Consumer<Transaction> action) throws SQLException {
+        queryFiltered(filter, true, action);
+    }
+
+    private void queryFiltered(TransactionFilter filter, boolean streaming,
+                               Consumer<Transaction> action) throws SQLException {
+
+        int[] categoryIds = new int[0];
+        if (!filter.getCategories().isEmpty()) {
+            categoryIds = categoryIds(filter.getCategories());
+            if (categoryIds.length == 0) return; // no such category, nothing can match
+        }
+
+        int categoryParams = inListSize(categoryIds.length);
+        String sql = filterSql(filter, categoryParams);
+
+        try (Connection con = DBConnection.getConnection();
+             PreparedStatement ps = streaming ? prepareStreaming(con, sql) : con.prepareStatement(sql)) {
+
+            int index = 1;
+
+            if (filter.getStartDate() != null)
+                ps.setDate(index++, Date.valueOf(filter.getStartDate()));
+
+            if (filter.getEndDate() != null)
+                ps.setDate(index++, Date.valueOf(filter.getEndDate()));
+
+            // Padding repeats the last id; duplicates in an IN list are harmless
+            for (int i = 0; i < categoryParams; i++)
+                ps.setInt(index++, categoryIds[Math.min(i, categoryIds.length - 1)]);
+
+            if (filter.getType() != null)
+                ps.setString(index++, filter.getType().name());
+
+            if (filter.getMinAmount() != null)
+                ps.setLong(index++, filter.getMinAmount());
+
+            if (filter.getMaxAmount() != null)
+                ps.setLong(index++, filter.getMaxAmount());
+
+            if (filter.getNotesText() != null)
+                ps.setString(index++, "%" + escapeLike(filter.getNotesText()) + "%");
+
+            if (filter.getLimit() > 0)
+                ps.setInt(index++, filter.getLimit());
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    action.accept(mapRowToTransaction(rs));
+                }
+            }
+        }
+    }
+
+    // Every id per name: on SQLite names differing only in case can have their own
+    private int[] categoryIds(Set<String> names) throws SQLException {
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (String name : names) {
+            for (Category category : categories.findAll(name)) ids.add(category.getId());
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // IN lists are padded to a power of two so a handful of SQL shapes (and
+    // cached statements) cover any number of selected categories
+    static int inListSize(int values) {
+        if (values <= 1) return values;
+        return Integer.highestOneBit(values - 1) << 1;
+    }
+
+    // '!' is the LIKE escape on both engines; a backslash would need
+    // different quoting for MySQL and SQLite
+    static String escapeLike(String text) {
+        StringBuilder sb = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '!' || c == '%' || c == '_') sb.append('!');
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /** SQL for the filter's shape; built once per shape and reused. */
+    static String filterSql(TransactionFilter filter, int categoryParams) {
+        return FILTER_SQL.computeIfAbsent(filterShapeName(filter, categoryParams),
+                name -> buildFilterSql(filter, categoryParams));
+    }
+
+    static String filterShapeName(TransactionFilter filter, int categoryParams) {
+        List<String> parts = new ArrayList<>();
+        if (filter.getStartDate() != null) parts.add("start");
+        if (filter.getEndDate() != null) parts.add("end");
+        if (categoryParams > 0) parts.add("category" + (categoryParams > 1 ? "[" + categoryParams + "]" : ""));
+        if (filter.getType() != null) parts.add("type");
+        if (filter.getMinAmount() != null) parts.add("min");
+        if (filter.getMaxAmount() != null) parts.add("max");
+        if (filter.getNotesText() != null) parts.add("notes");
+        String name = parts.isEmpty() ? "none" : String.join("+", parts);
+
+        if (filter.getSort() != TransactionFilter.Sort.DATE_DESC) name += " " + filter.getSort();
+        if (filter.getLimit() > 0) name += " limit";
+        return name;
+    }
+
+    /** Prepared statement cache hits/misses for each filter shape used so far, keyed by shape name. */
+    public static Map<String, StatementCacheStats> getFilterStatementStats() {
+        Map<String, StatementCacheStats> stats = new TreeMap<>();
+        FILTER_SQL.forEach((name, sql) -> stats.put(name, DBConnection.getStatementCacheStats(sql)));
+        return stats;
+    }
+
+    private static String buildFilterSql(TransactionFilter filter, int categoryParams) {
+
+        StringBuilder sql = new StringBuilder(
+                "SELECT * FROM transactions WHERE 1=1 ");
+
+        if (filter.getStartDate() != null) sql.append("AND date >= ? ");
+        if (filter.getEndDate() != null) sql.append("AND date <= ? ");
+        if (categoryParams == 1) {
+            sql.append("AND category_id = ? ");
+        } else if (categoryParams > 1) {
+            sql.append("AND category_id IN (?");
+            sql.append(", ?".repeat(categoryParams - 1));
+            sql.append(") ");
+        }
+        if (filter.getType() != null) sql.append("AND type = ? ");
+        if (filter.getMinAmount() != null) sql.append("AND amount_minor >= ? ");
+        if (filter.getMaxAmount() != null) sql.append("AND amount_minor <= ? ");
+        if (filter.getNotesText() != null) sql.append("AND notes LIKE ? ESCAPE '!' ");
+
+        sql.append("ORDER BY ").append(orderBy(filter.getSort()));
+        if (filter.getLimit() > 0) sql.append(" LIMIT ?");
+        return sql.toString();
+    }
+
+    // Each order has a matching index: idx_tx_date_id and idx_tx_amount_id
+    private static String orderBy(TransactionFilter.Sort sort) {
+        return switch (sort) {
+            case DATE_DESC -> "date DESC, id DESC";
+            case DATE_ASC -> "date ASC, id ASC";
+            case AMOUNT_DESC -> "amount_minor DESC, id DESC";
+            case AMOUNT_ASC -> "amount_minor ASC, id ASC";
+        };
+    }
+
+    // ================== SUMMARY ==================
+    /**
+     * Totals per (type, category) computed by the database. Any argument may
+     * be {@code null} to leave that dimension unbounded.
+     */
+    @Override
+    public TransactionSummary summarize(
             LocalDate startDate,
             LocalDate endDate,
-            String category,
             TransactionType type) throws SQLException {
 
-        List<Transaction> transactions = new ArrayList<>();
-
         StringBuilder sql = new StringBuilder(
-                "SELECT * FROM transactions WHERE 1=1 ");
+                "SELECT type, category_id, SUM(amount_minor) AS total, COUNT(*) AS cnt FROM transactions WHERE 1=1 ");
 
         if (startDate != null) sql.append("AND date >= ? ");
         if (endDate != null) sql.append("AND date <= ? ");
-        if (category != null && !category.isBlank()) sql.append("AND category = ? ");
         if (type != null) sql.append("AND type = ? ");
 
-        sql.append("ORDER BY date DESC");
+        sql.append("GROUP BY type, category_id ORDER BY total DESC");
+
+        Map<String, Long> income = new LinkedHashMap<>();
+        Map<String, Long> expense = new LinkedHashMap<>();
+        long count = 0;
 
         try (Connection con = DBConnection.getConnection();
              PreparedStatement ps = con.prepareStatement(sql.toString())) {
@@ -116,31 +794,195 @@ public class TransactionDAO {
             if (endDate != null)
                 ps.setDate(index++, Date.valueOf(endDate));
 
-            if (category != null && !category.isBlank())
-                ps.setString(index++, category);
+            if (type != null)
+                ps.setString(index++, type.name());
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    TransactionType rowType = TransactionType.valueOf(rs.getString("type"));
+                    Map<String, Long> target = rowType == TransactionType.INCOME ? income : expense;
+                    target.put(categories.get(rs.getInt("category_id")).getName(), rs.getLong("total"));
+                    count += rs.getLong("cnt");
+                }
+            }
+        }
+        return new TransactionSummary(income, expense, count);
+    }
+
+    /**
+     * Streams totals grouped by (date, type, category); this is what the
+     * in-memory ledger aggregates are warmed from. They are read from the
+     * daily rollup, so the ledger itself is not scanned.
+     */
+    @Override
+    public void forEachDailyTotal(DailyTotalHandler handler) throws SQLException {
+
+        try (Connection con = DBConnection.getConnection();
+             PreparedStatement ps = prepareStreaming(con, DAILY_TOTALS_SQL);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                handler.accept(
+                        rs.getDate("date").toLocalDate(),
+                        TransactionType.valueOf(rs.getString("type")),
+                        categories.get(rs.getInt("category_id")).getName(),
+                        rs.getLong("total"),
+                        rs.getLong("cnt"));
+            }
+        }
+    }
+
+    // ================== ROLLUPS ==================
+    /**
+     * Rollup rows with a period start in [startDate, endDate]: from the
+     * monthly table when {@code granularity} is month aligned, otherwise
+     * the daily one. Any bound may be {@code null}.
+     */
+    @Override
+    public void forEachRollup(
+            Granularity granularity,
+            LocalDate startDate,
+            LocalDate endDate,
+            TransactionType type,
+            DailyTotalHandler handler) throws SQLException {
+
+        StringBuilder sql = new StringBuilder("SELECT period_start, type, category_id, total_minor, cnt FROM ")
+                .append(granularity.isMonthAligned() ? RollupTables.MONTHLY : RollupTables.DAILY)
+                .append(" WHERE 1=1 ");
+
+        if (startDate != null) sql.append("AND period_start >= ? ");
+        if (endDate != null) sql.append("AND period_start <= ? ");
+        if (type != null) sql.append("AND type = ? ");
+
+        try (Connection con = DBConnection.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql.toString())) {
+
+            int index = 1;
+
+            if (startDate != null)
+                ps.setDate(index++, Date.valueOf(startDate));
+
+            if (endDate != null)
+                ps.setDate(index++, Date.valueOf(endDate));
 
             if (type != null)
                 ps.setString(index++, type.name());
 
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    transactions.add(mapRowToTransaction(rs));
+                    handler.accept(
+                            rs.getDate("period_start").toLocalDate(),
+                            TransactionType.valueOf(rs.getString("type")),
+                            categories.get(rs.getInt("category_id")).getName(),
+                            rs.getLong("total_minor"),
+                            rs.getLong("cnt"));
                 }
             }
         }
-        return transactions;
+    }
+
+    /** Recomputes both rollup tables from the ledger in one transaction. */
+    @Override
+    public void rebuildRollups() throws SQLException {
+
+        try (Connection con = DBConnection.getConnection()) {
+            con.setAutoCommit(false);
+            try {
+                RollupTables.backfill(con, DBConnection.getDialect());
+                con.commit();
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private void addRollup(RollupDelta rollups, Transaction t, int sign) throws SQLException {
+        rollups.add(t, categories.resolve(t.getCategory()).getId(), sign);
+    }
+
+    // ================== CATEGORIES ==================
+    @Override
+    public List<Category> getCategories() throws SQLException {
+        return categories.getAll();
+    }
+
+    // ================== BINDING ==================
+    // New categories are inserted before the write transaction borrows its
+    // connection; SQLite allows only one writer at a time
+    private void resolveCategories(Collection<Transaction> transactions) throws SQLException {
+        Set<String> names = new HashSet<>();
+        for (Transaction t : transactions) {
+            names.add(t.getCategory());
+        }
+        categories.resolveAll(names);
+    }
+
+    // Also gives the row its category's stored spelling ("food" becomes "Food"),
+    // so caches and events updated from it agree with rows read back later
+    private void bindTransaction(PreparedStatement ps, Transaction transaction) throws SQLException {
+        Category category = categories.resolve(transaction.getCategory());
+        transaction.setCategory(category.getName());
+
+        ps.setLong(1, transaction.getAmount());
+        ps.setDate(2, Date.valueOf(transaction.getDate()));
+        ps.setInt(3, category.getId());
+        ps.setString(4, transaction.getType().name());
+        ps.setString(5, transaction.getNotes());
+    }
+
+    private int flushInsertBatch(PreparedStatement ps, List<Transaction> chunk,
+                                 int[] keys, int keyIndex) throws SQLException {
+        ps.executeBatch();
+
+        int[] generated = readBatchKeys(ps, chunk.size());
+        // A short key list cannot be matched to rows; roll the insert back instead
+        if (generated.length != chunk.size()) {
+            throw new SQLException("Batch insert returned " + generated.length
+                    + " generated keys for " + chunk.size() + " rows");
+        }
+        for (int i = 0; i < generated.length; i++) {
+            chunk.get(i).setId(generated[i]);
+            keys[keyIndex++] = generated[i];
+        }
+        chunk.clear();
+        return keyIndex;
+    }
+
+    /**
+     * Ids generated by the batch just executed on {@code ps}, in insert order.
+     * The MySQL driver returns one key per batched row; fewer than
+     * {@code rows} keys fails the insert.
+     */
+    protected int[] readBatchKeys(PreparedStatement ps, int rows) throws SQLException {
+        int[] ids = new int[rows];
+        int i = 0;
+        try (ResultSet rs = ps.getGeneratedKeys()) {
+            while (rs.next() && i < rows) {
+                ids[i++] = rs.getInt(1);
+            }
+        }
+        return i == rows ? ids : Arrays.copyOf(ids, i);
     }
 
     // ================== MAPPER ==================
-    private Transaction mapRowToTransaction(ResultSet rs) throws SQLException {
+    Transaction mapRowToTransaction(ResultSet rs) throws SQLException {
+
+        String type = rs.getString("type");
+        String notes = rs.getString("notes");
+
+        ROWS_MAPPED.increment();
+        SlowQueryLog.rowRead();
+        // JDBC does not report wire bytes; count the column values' size instead
+        BYTES_FETCHED.add(ROW_FIXED_BYTES + type.length() + (notes == null ? 0 : notes.length()));
 
         return new Transaction(
                 rs.getInt("id"),
-                rs.getDouble("amount"),
+                rs.getLong("amount_minor"),
                 rs.getDate("date").toLocalDate(),
-                rs.getString("category"),
-                TransactionType.valueOf(rs.getString("type")),
-                rs.getString("notes")
+                categories.get(rs.getInt("category_id")).getName(),
+                TransactionType.valueOf(type),
+                notes
         );
     }
 }
@@ -0,0 +1,29 @@
+package com.expensetracker.dao;
+
+import com.expensetracker.model.Transaction;
+
+import java.util.List;
+
+public final class TransactionPage {
+
+    private final List<Transaction> transactions;
+    private final TransactionCursor nextCursor;
+
+    public TransactionPage(List<Transaction> transactions, TransactionCursor nextCursor) {
+        this.transactions = transactions;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    /** Cursor for the following page, or {@code null} if this is the last one. */
+    public TransactionCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,113 @@
+package com.expensetracker.dao;
+
+import com.expensetracker.db.DBConnection;
+import com.expensetracker.diagnostics.SlowQueryLog;
+import com.expensetracker.metrics.Metrics;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Granularity;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionFilter;
+import com.expensetracker.model.TransactionSummary;
+import com.expensetracker.model.TransactionType;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Storage operations behind {@code TransactionService}. Implementations
+ * exist per storage engine; use {@link #create()} to get the configured one.
+ */
+public interface TransactionRepository {
+
+    /**
+     * Receives one (period, type, category) group from {@link #forEachDailyTotal}
+     * or {@link #forEachRollup}; the date is the period's first day.
+     */
+    @FunctionalInterface
+    interface DailyTotalHandler {
+        void accept(LocalDate date, TransactionType type, String category, long total, long count);
+    }
+
+    // ================== WRITES ==================
+    void addTransaction(Transaction transaction) throws SQLException;
+
+    // Updates and deletes hand back the rows as they were, read under the
+    // write's own row locks, so callers can apply exact deltas
+
+    /** Returns the row as it was before, or {@code null} if there was none. */
+    Transaction updateTransaction(Transaction transaction) throws SQLException;
+
+    /** Returns the deleted row, or {@code null} if there was none. */
+    Transaction deleteTransaction(int id) throws SQLException;
+
+    int[] addTransactions(Collection<Transaction> transactions) throws SQLException;
+
+    /** {@code previous}, if not null, receives the rows as they were, by id. */
+    int[] updateTransactions(Collection<Transaction> transactions, Map<Integer, Transaction> previous)
+            throws SQLException;
+
+    /** {@code previous}, if not null, receives the deleted rows, by id. */
+    int[] deleteTransactions(int[] ids, Map<Integer, Transaction> previous) throws SQLException;
+
+    // ================== READS ==================
+    Transaction findById(int id) throws SQLException;
+
+    Map<Integer, Transaction> findByIds(int[] ids) throws SQLException;
+
+    /** Ids of the stored rows carrying any of these write keys, by key. */
+    Map<String, Integer> findWriteKeys(Collection<String> writeKeys) throws SQLException;
+
+    List<Transaction> getAllTransactions() throws SQLException;
+
+    TransactionPage findPage(TransactionCursor after, int limit) throws SQLException;
+
+    int countTransactions() throws SQLException;
+
+    List<Transaction> findRange(int offset, int limit) throws SQLException;
+
+    void forEachTransaction(Consumer<Transaction> action) throws SQLException;
+
+    Stream<Transaction> streamTransactions() throws SQLException;
+
+    List<Transaction> filterTransactions(TransactionFilter filter) throws SQLException;
+
+    void forEachFiltered(TransactionFilter filter, Consumer<Transaction> action) throws SQLException;
+
+    List<Category> getCategories() throws SQLException;
+
+    // ================== AGGREGATES ==================
+    TransactionSummary summarize(
+            LocalDate startDate,
+            LocalDate endDate,
+            TransactionType type) throws SQLException;
+
+    void forEachDailyTotal(DailyTotalHandler handler) throws SQLException;
+
+    void forEachRollup(
+            Granularity granularity,
+            LocalDate startDate,
+            LocalDate endDate,
+            TransactionType type,
+            DailyTotalHandler handler) throws SQLException;
+
+    void rebuildRollups() throws SQLException;
+
+    // ================== FACTORY ==================
+    /**
+     * The configured implementation, with each call timed as
+     * {@code dao.<method>} and slow calls written to the slow query log.
+     */
+    static TransactionRepository create() {
+        TransactionRepository dao = switch (DBConnection.getDialect()) {
+            case MYSQL -> new TransactionDAO();
+            case SQLITE -> new SqliteTransactionDAO();
+        };
+        return Metrics.instrument(TransactionRepository.class,
+                SlowQueryLog.watch(TransactionRepository.class, dao), "dao");
+    }
+}
@@ -0,0 +1,516 @@
+package com.expensetracker.db;
+
+import com.expensetracker.diagnostics.BoundParameters;
+import com.expensetracker.diagnostics.SlowQueryLog;
+import com.expensetracker.metrics.LatencyHistogram;
+import com.expensetracker.metrics.Metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded JDBC connection pool.
+ *
+ * Callers borrow a connection and close it as usual; closing hands the
+ * physical connection back to the pool instead of disconnecting.
+ *
+ * Each physical connection also keeps an LRU cache of statements prepared
+ * with {@code prepareStatement(String)}. Closing such a statement only
+ * clears its parameters, so the next borrower skips the prepare.
+ */
+public class ConnectionPool {
+
+    private final String url;
+    private final Properties connectionProperties;
+
+    private final int minSize;
+    private final int maxSize;
+    private final long maxWaitMillis;
+    private final long idleTimeoutMillis;
+    private final long validationBypassMillis;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    // Most recently returned connection sits at the head (LIFO keeps hot connections hot)
+    private final LinkedBlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger activeConnections = new AtomicInteger();
+
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder destroyedCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    // [hits, misses] per SQL string
+    private final Map<String, LongAdder[]> statementStats = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, Properties connectionProperties,
+                          int minSize, int maxSize,
+                          long maxWaitMillis, long idleTimeoutMillis,
+                          long validationBypassMillis, int validationTimeoutSeconds,
+                          int statementCacheSize) {
+
+        if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+
+        this.url = url;
+        this.connectionProperties = connectionProperties;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validationBypassMillis = validationBypassMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::maintain, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // ================== BORROW ==================
+    public Connection borrow() throws SQLException {
+
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.increment();
+                throw new SQLTransientConnectionException("Timed out after " + maxWaitMillis
+                        + " ms waiting for a database connection (max pool size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        recordWait(System.nanoTime() - start);
+
+        try {
+            PooledEntry entry;
+            while ((entry = idle.pollFirst()) != null) {
+                if (isUsable(entry)) {
+                    return lend(entry);
+                }
+                destroy(entry);
+            }
+            return lend(create());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // ================== RETURN ==================
+    private void giveBack(PooledEntry entry) {
+
+        activeConnections.decrementAndGet();
+
+        try {
+            Connection raw = entry.connection;
+            if (closed || raw.isClosed()) {
+                destroy(entry);
+            } else {
+                if (!raw.getAutoCommit()) {
+                    raw.rollback();
+                    raw.setAutoCommit(true);
+                }
+                entry.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(entry);
+            }
+        } catch (SQLException e) {
+            destroy(entry);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // ================== METRICS ==================
+    public PoolStats getStats() {
+        long borrows = borrowCount.sum();
+        long waitNanos = totalWaitNanos.sum();
+
+        return new PoolStats(
+                activeConnections.get(),
+                idle.size(),
+                totalConnections.get(),
+                maxSize,
+                permits.getQueueLength(),
+                borrows,
+                timeoutCount.sum(),
+                createdCount.sum(),
+                destroyedCount.sum(),
+                borrows == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(waitNanos / borrows),
+                TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get())
+        );
+    }
+
+    public Map<String, StatementCacheStats> getStatementCacheStats() {
+        Map<String, StatementCacheStats> stats = new HashMap<>();
+        statementStats.forEach((sql, counters) ->
+                stats.put(sql, new StatementCacheStats(counters[0].sum(), counters[1].sum())));
+        return stats;
+    }
+
+    public StatementCacheStats getStatementCacheStats(String sql) {
+        LongAdder[] counters = statementStats.get(sql);
+        return counters == null
+                ? new StatementCacheStats(0, 0)
+                : new StatementCacheStats(counters[0].sum(), counters[1].sum());
+    }
+
+    // ================== SHUTDOWN ==================
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            destroy(entry);
+        }
+    }
+
+    // ================== MAINTENANCE ==================
+    private void maintain() {
+
+        long now = System.currentTimeMillis();
+
+        // Oldest idle connections are at the tail
+        Iterator<PooledEntry> it = idle.descendingIterator();
+        while (it.hasNext() && totalConnections.get() > minSize) {
+            PooledEntry entry = it.next();
+            if (now - entry.lastUsed > idleTimeoutMillis && idle.remove(entry)) {
+                destroy(entry);
+            }
+        }
+
+        try {
+            while (!closed && totalConnections.get() < minSize) {
+                idle.offerLast(create());
+            }
+        } catch (SQLException e) {
+            // Database unavailable; try again on the next run
+        }
+    }
+
+    // ================== HELPERS ==================
+    private PooledEntry create() throws SQLException {
+        Connection raw = DriverManager.getConnection(url, connectionProperties);
+        totalConnections.incrementAndGet();
+        createdCount.increment();
+        return new PooledEntry(raw);
+    }
+
+    private void destroy(PooledEntry entry) {
+        totalConnections.decrementAndGet();
+        destroyedCount.increment();
+        try {
+            entry.connection.close();
+        } catch (SQLException e) {
+            // already broken, nothing to do
+        }
+    }
+
+    private boolean isUsable(PooledEntry entry) {
+        // Skip the ping for connections that were in use a moment ago
+        if (System.currentTimeMillis() - entry.lastUsed < validationBypassMillis) {
+            return true;
+        }
+        try {
+            return entry.connection.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection lend(PooledEntry entry) {
+        activeConnections.incrementAndGet();
+        borrowCount.increment();
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new PooledConnectionHandler(entry));
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private void recordStatement(String sql, boolean hit) {
+        statementStats.computeIfAbsent(sql, k -> new LongAdder[]{new LongAdder(), new LongAdder()})
+                [hit ? 0 : 1].increment();
+    }
+
+    // ================== POOLED ENTRY ==================
+    private final class PooledEntry {
+
+        private final Connection connection;
+        private volatile long lastUsed;
+
+        // Only touched by the thread that currently holds the connection
+        private final Map<String, CachedStatement> statements =
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                        if (size() <= statementCacheSize || eldest.getValue().inUse) return false;
+                        closeQuietly(eldest.getValue().statement);
+                        return true;
+                    }
+                };
+
+        private PooledEntry(Connection connection) {
+            this.connection = connection;
+            this.lastUsed = System.currentTimeMillis();
+        }
+
+        private PreparedStatement prepare(String sql) throws SQLException {
+
+            CachedStatement cached = statements.get(sql);
+            if (cached != null && !cached.inUse && !cached.statement.isClosed()) {
+                recordStatement(sql, true);
+                return cached.lend();
+            }
+
+            recordStatement(sql, false);
+            PreparedStatement raw = connection.prepareStatement(sql);
+
+            // Already lent out (same SQL opened twice): hand out an uncached one
+            if (cached != null && cached.inUse) {
+                return timed(raw, sql);
+            }
+
+            CachedStatement fresh = new CachedStatement(raw, new StatementProbe(sql));
+            statements.put(sql, fresh);
+            return fresh.lend();
+        }
+    }
+
+    private static final class CachedStatement {
+
+        private final PreparedStatement statement;
+        private final StatementProbe probe;
+        private boolean inUse;
+
+        private CachedStatement(PreparedStatement statement, StatementProbe probe) {
+            this.statement = statement;
+            this.probe = probe;
+        }
+
+        private PreparedStatement lend() {
+            inUse = true;
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new CachedStatementHandler(this));
+        }
+    }
+
+    // Keeps the statement open on close(); just resets it for the next user
+    private static final class CachedStatementHandler implements InvocationHandler {
+
+        private final CachedStatement cached;
+        private boolean released;
+
+        private CachedStatementHandler(CachedStatement cached) {
+            this.cached = cached;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        try {
+                            cached.statement.clearParameters();
+                            cached.statement.clearBatch();
+                        } finally {
+                            cached.probe.reset();
+                            cached.inUse = false;
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return released || cached.statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+
+            if (released) {
+                throw new SQLException("Statement is closed");
+            }
+
+            return cached.probe.invoke(cached.statement, method, args);
+        }
+    }
+
+    // ================== STATEMENT TIMING ==================
+    // Statements that bypass the cache are timed the same way
+    private static PreparedStatement timed(PreparedStatement statement, String sql) {
+        StatementProbe probe = new StatementProbe(sql);
+        if (probe.timer == null && probe.parameters == null) return statement;
+        return (PreparedStatement) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> probe.invoke(statement, method, args));
+    }
+
+    // Times executions under one timer per SQL text, named "sql <statement>"
+    // with whitespace collapsed, and tracks bound parameters for the slow
+    // query log; either part is null when switched off
+    private static final class StatementProbe {
+
+        private final String sql;
+        private final LatencyHistogram timer;
+        private final BoundParameters parameters;
+
+        private StatementProbe(String sql) {
+            this.sql = sql;
+            this.timer = Metrics.isEnabled() ? Metrics.timer("sql " + sql.strip().replaceAll("\\s+", " ")) : null;
+            this.parameters = SlowQueryLog.isEnabled() ? new BoundParameters() : null;
+        }
+
+        private Object invoke(PreparedStatement statement, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (parameters != null) parameters.observe(name, args);
+            if (!name.startsWith("execute")) return invokeStatement(statement, method, args);
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = invokeStatement(statement, method, args);
+            } catch (Throwable e) {
+                executed(System.nanoTime() - start, null);
+                throw e;
+            }
+            return executed(System.nanoTime() - start, result);
+        }
+
+        private Object executed(long nanos, Object result) {
+            if (timer != null) timer.record(nanos);
+            if (parameters != null) SlowQueryLog.executed(sql, parameters, nanos, result);
+            return result;
+        }
+
+        private void reset() {
+            if (parameters != null) parameters.reset();
+        }
+    }
+
+    private static Object invokeStatement(PreparedStatement statement, Method method, Object[] args)
+            throws Throwable {
+        try {
+            return method.invoke(statement, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable resource) {
+        try {
+            resource.close();
+        } catch (Exception e) {
+            // already broken, nothing to do
+        }
+    }
+
+    // ================== CONNECTION PROXY ==================
+    private final class PooledConnectionHandler implements InvocationHandler {
+
+        private final PooledEntry entry;
+        private boolean released;
+
+        private PooledConnectionHandler(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        giveBack(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || entry.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + entry.connection + "]";
+                case "prepareStatement":
+                    if (!released && statementCacheSize > 0 && args.length == 1) {
+                        return entry.prepare((String) args[0]);
+                    }
+                    if (!released) {
+                        return timed((PreparedStatement) invokeTarget(method, args), (String) args[0]);
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            if (released) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            return invokeTarget(method, args);
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(entry.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
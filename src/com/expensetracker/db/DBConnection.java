@@ -1,31 +1,125 @@
 package com.expensetracker.db;
 
+import com.expensetracker.metrics.LatencyHistogram;
+import com.expensetracker.metrics.Metrics;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.function.ToLongFunction;
 
 public class DBConnection {
 
-    private static final String URL =
-            "jdbc:mysql://localhost:3306/expense_tracker?useSSL=false&serverTimezone=UTC";
-    private static final String USER = "root";
-    private static final String PASSWORD = "root";
+    // Storage engine: -Dexpensetracker.db.engine=mysql (default) or sqlite
+    private static final DatabaseDialect DIALECT =
+            DatabaseDialect.fromName(System.getProperty("expensetracker.db.engine", "mysql"));
+
+    private static final String URL = System.getProperty("expensetracker.db.url", DIALECT.getDefaultUrl());
+    private static final String USER = System.getProperty("expensetracker.db.user", "root");
+    private static final String PASSWORD = System.getProperty("expensetracker.db.password", "root");
+
+    // Pool settings, overridable with -Dexpensetracker.pool.* system properties
+    private static final int POOL_MIN_SIZE = Integer.getInteger("expensetracker.pool.minSize", 1);
+    private static final int POOL_MAX_SIZE = Integer.getInteger("expensetracker.pool.maxSize", 8);
+    private static final long POOL_MAX_WAIT_MS = Long.getLong("expensetracker.pool.maxWaitMs", 5_000L);
+    private static final long POOL_IDLE_TIMEOUT_MS = Long.getLong("expensetracker.pool.idleTimeoutMs", 300_000L);
+    private static final long POOL_VALIDATION_BYPASS_MS = Long.getLong("expensetracker.pool.validationBypassMs", 500L);
+    private static final int POOL_VALIDATION_TIMEOUT_S = Integer.getInteger("expensetracker.pool.validationTimeoutSec", 2);
+    private static final int POOL_STATEMENT_CACHE_SIZE = Integer.getInteger("expensetracker.pool.statementCacheSize", 64);
+
+    // Set -Dexpensetracker.migrate=false to manage the schema by hand
+    private static final boolean MIGRATE_ON_STARTUP =
+            Boolean.parseBoolean(System.getProperty("expensetracker.migrate", "true"));
+
+    private static volatile ConnectionPool pool;
+
+    // Includes waiting for a free connection and, on first use, opening the pool
+    private static final LatencyHistogram ACQUIRE_TIMER = Metrics.timer("db.connection.acquire");
 
-    private static Connection connection;
+    static {
+        Metrics.gauge("db.pool.active", () -> poolStat(PoolStats::getActive));
+        Metrics.gauge("db.pool.idle", () -> poolStat(PoolStats::getIdle));
+        Metrics.gauge("db.pool.waitingThreads", () -> poolStat(PoolStats::getWaitingThreads));
+        Metrics.gauge("db.pool.timeouts", () -> poolStat(PoolStats::getTimeoutCount));
+    }
 
     private DBConnection() {
         // prevent instantiation
     }
 
+    /**
+     * Borrows a connection from the shared pool. Closing the returned
+     * connection gives it back to the pool.
+     */
     public static Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
         try {
-            if (connection == null || connection.isClosed()) {
-                Class.forName("com.mysql.cj.jdbc.Driver");
-                connection = DriverManager.getConnection(URL, USER, PASSWORD);
+            return pool().borrow();
+        } finally {
+            ACQUIRE_TIMER.recordSince(start);
+        }
+    }
+
+    public static DatabaseDialect getDialect() {
+        return DIALECT;
+    }
+
+    public static PoolStats getPoolStats() {
+        ConnectionPool current = pool;
+        return current == null ? null : current.getStats();
+    }
+
+    private static long poolStat(ToLongFunction<PoolStats> stat) {
+        PoolStats stats = getPoolStats();
+        return stats == null ? 0 : stat.applyAsLong(stats);
+    }
+
+    /** Prepared statement cache hits/misses for one SQL string. */
+    public static StatementCacheStats getStatementCacheStats(String sql) {
+        ConnectionPool current = pool;
+        return current == null ? new StatementCacheStats(0, 0) : current.getStatementCacheStats(sql);
+    }
+
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+    }
+
+    private static ConnectionPool pool() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DBConnection.class) {
+                current = pool;
+                if (current == null) {
+                    try {
+                        Class.forName(DIALECT.getDriverClass());
+                    } catch (ClassNotFoundException e) {
+                        throw new SQLException(DIALECT + " JDBC Driver not found", e);
+                    }
+                    DIALECT.prepare(URL);
+
+                    current = new ConnectionPool(URL, DIALECT.connectionProperties(USER, PASSWORD),
+                            POOL_MIN_SIZE, POOL_MAX_SIZE,
+                            POOL_MAX_WAIT_MS, POOL_IDLE_TIMEOUT_MS,
+                            POOL_VALIDATION_BYPASS_MS, POOL_VALIDATION_TIMEOUT_S,
+                            POOL_STATEMENT_CACHE_SIZE);
+
+                    if (MIGRATE_ON_STARTUP) {
+                        try (Connection con = current.borrow()) {
+                            SchemaMigrator.migrate(con, DIALECT);
+                        } catch (SQLException e) {
+                            current.close();
+                            throw e;
+                        }
+                    }
+
+                    pool = current;
+                    Runtime.getRuntime().addShutdownHook(
+                            new Thread(DBConnection::shutdown, "db-pool-shutdown"));
+                }
             }
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL JDBC Driver not found", e);
         }
-        return connection;
+        return current;
     }
 }
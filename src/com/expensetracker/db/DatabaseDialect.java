@@ -0,0 +1,134 @@
+package com.expensetracker.db;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Supported storage engines and the few places where their SQL or
+ * connection setup differ.
+ */
+public enum DatabaseDialect {
+
+    MYSQL("com.mysql.cj.jdbc.Driver",
+            "jdbc:mysql://localhost:3306/expense_tracker?useSSL=false&serverTimezone=UTC"
+                    + "&rewriteBatchedStatements=true&useCursorFetch=true"
+                    + "&useServerPrepStmts=true&cachePrepStmts=true&prepStmtCacheSize=64",
+            "INT AUTO_INCREMENT PRIMARY KEY"),
+
+    // Embedded, in-process engine for single-user installs; no server needed
+    SQLITE("org.sqlite.JDBC",
+            "jdbc:sqlite:" + System.getProperty("user.home")
+                    + File.separator + ".expense-tracker" + File.separator + "expenses.db",
+            "INTEGER PRIMARY KEY AUTOINCREMENT");
+
+    private final String driverClass;
+    private final String defaultUrl;
+    private final String autoIncrementPrimaryKey;
+
+    DatabaseDialect(String driverClass, String defaultUrl, String autoIncrementPrimaryKey) {
+        this.driverClass = driverClass;
+        this.defaultUrl = defaultUrl;
+        this.autoIncrementPrimaryKey = autoIncrementPrimaryKey;
+    }
+
+    public String getDriverClass() {
+        return driverClass;
+    }
+
+    public String getDefaultUrl() {
+        return defaultUrl;
+    }
+
+    /** Column definition for a generated integer primary key. */
+    public String getAutoIncrementPrimaryKey() {
+        return autoIncrementPrimaryKey;
+    }
+
+    public boolean supportsExplain() {
+        return this == MYSQL;
+    }
+
+    public String dropIndexSql(String table, String index) {
+        return this == MYSQL
+                ? "DROP INDEX " + index + " ON " + table
+                : "DROP INDEX " + index;
+    }
+
+    /** First day of the month of a DATE column, as a value a DATE column accepts. */
+    public String monthStartSql(String dateColumn) {
+        return this == MYSQL
+                ? "DATE_FORMAT(" + dateColumn + ", '%Y-%m-01')"
+                : "strftime('%Y-%m-01', " + dateColumn + ")";
+    }
+
+    /**
+     * Single-row INSERT that, when the key already exists, adds the new
+     * values of {@code addColumns} to the stored ones instead of failing.
+     */
+    public String insertOrAddSql(String table, List<String> keyColumns, List<String> addColumns) {
+        List<String> columns = new ArrayList<>(keyColumns);
+        columns.addAll(addColumns);
+
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table)
+                .append(" (").append(String.join(", ", columns)).append(") VALUES (?")
+                .append(", ?".repeat(columns.size() - 1)).append(")");
+
+        List<String> sets = new ArrayList<>();
+        if (this == MYSQL) {
+            sql.append(" ON DUPLICATE KEY UPDATE ");
+            for (String c : addColumns) sets.add(c + " = " + c + " + VALUES(" + c + ")");
+        } else {
+            sql.append(" ON CONFLICT (").append(String.join(", ", keyColumns)).append(") DO UPDATE SET ");
+            for (String c : addColumns) sets.add(c + " = " + c + " + excluded." + c);
+        }
+        return sql.append(String.join(", ", sets)).toString();
+    }
+
+    /**
+     * Suffix that write-locks the rows a SELECT reads until commit. SQLite
+     * needs none: it has one writer at a time, and a transaction whose reads
+     * were overtaken by another commit fails instead of committing.
+     */
+    public String lockRowsClause() {
+        return this == MYSQL ? " FOR UPDATE" : "";
+    }
+
+    public Properties connectionProperties(String user, String password) {
+        Properties props = new Properties();
+        if (user != null) props.setProperty("user", user);
+        if (password != null) props.setProperty("password", password);
+
+        if (this == SQLITE) {
+            // WAL lets readers run alongside the single writer
+            props.setProperty("journal_mode", "WAL");
+            props.setProperty("synchronous", "NORMAL");
+            props.setProperty("busy_timeout", "5000");
+            props.setProperty("foreign_keys", "true");
+            // Store DATE columns as ISO text so range filters and GROUP BY work on days
+            props.setProperty("date_class", "TEXT");
+            props.setProperty("date_string_format", "yyyy-MM-dd");
+        }
+        return props;
+    }
+
+    /** Creates the parent directory of a file-based database if needed. */
+    void prepare(String url) {
+        if (this == SQLITE && url.startsWith("jdbc:sqlite:") && !url.contains(":memory:")) {
+            File parent = new File(url.substring("jdbc:sqlite:".length())).getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.exists()) {
+                parent.mkdirs();
+            }
+        }
+    }
+
+    public static DatabaseDialect fromName(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown database engine: " + name
+                    + " (expected mysql or sqlite)", e);
+        }
+    }
+}
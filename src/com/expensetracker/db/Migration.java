@@ -0,0 +1,17 @@
+package com.expensetracker.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * One versioned schema step. Steps must be safe to re-run against a
+ * database that was created by hand before migrations existed.
+ */
+public interface Migration {
+
+    int getVersion();
+
+    String getDescription();
+
+    void apply(Connection con, DatabaseDialect dialect) throws SQLException;
+}
@@ -0,0 +1,93 @@
+package com.expensetracker.db;
+
+/**
+ * Point-in-time snapshot of {@link ConnectionPool} counters.
+ */
+public final class PoolStats {
+
+    private final int active;
+    private final int idle;
+    private final int total;
+    private final int maxSize;
+    private final int waitingThreads;
+    private final long borrowCount;
+    private final long timeoutCount;
+    private final long createdCount;
+    private final long destroyedCount;
+    private final long avgWaitMicros;
+    private final long maxWaitMicros;
+
+    public PoolStats(int active, int idle, int total, int maxSize, int waitingThreads,
+                     long borrowCount, long timeoutCount, long createdCount, long destroyedCount,
+                     long avgWaitMicros, long maxWaitMicros) {
+        this.active = active;
+        this.idle = idle;
+        this.total = total;
+        this.maxSize = maxSize;
+        this.waitingThreads = waitingThreads;
+        this.borrowCount = borrowCount;
+        this.timeoutCount = timeoutCount;
+        this.createdCount = createdCount;
+        this.destroyedCount = destroyedCount;
+        this.avgWaitMicros = avgWaitMicros;
+        this.maxWaitMicros = maxWaitMicros;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getWaitingThreads() {
+        return waitingThreads;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    public long getCreatedCount() {
+        return createdCount;
+    }
+
+    public long getDestroyedCount() {
+        return destroyedCount;
+    }
+
+    public long getAvgWaitMicros() {
+        return avgWaitMicros;
+    }
+
+    public long getMaxWaitMicros() {
+        return maxWaitMicros;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStats{active=" + active
+                + ", idle=" + idle
+                + ", total=" + total + "/" + maxSize
+                + ", waiting=" + waitingThreads
+                + ", borrows=" + borrowCount
+                + ", timeouts=" + timeoutCount
+                + ", created=" + createdCount
+                + ", destroyed=" + destroyedCount
+                + ", avgWait=" + avgWaitMicros + "us"
+                + ", maxWait=" + maxWaitMicros + "us}";
+    }
+}
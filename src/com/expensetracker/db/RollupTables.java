@@ -0,0 +1,60 @@
+package com.expensetracker.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Materialized totals per (period, category, type): one table by day and
+ * one by month. Rows hold the period's first day, the summed minor units
+ * and the row count.
+ *
+ * The DAO keeps them current inside each write transaction; {@link #backfill}
+ * recomputes both from {@code transactions}.
+ */
+public final class RollupTables {
+
+    public static final String DAILY = "rollup_daily";
+    public static final String MONTHLY = "rollup_monthly";
+
+    private RollupTables() {
+        // utility class
+    }
+
+    static void create(Connection con) throws SQLException {
+        for (String table : new String[]{DAILY, MONTHLY}) {
+            SchemaMigrator.execute(con, """
+                    CREATE TABLE IF NOT EXISTS %s (
+                        period_start DATE        NOT NULL,
+                        category_id  INT         NOT NULL,
+                        type         VARCHAR(16) NOT NULL,
+                        total_minor  BIGINT      NOT NULL,
+                        cnt          BIGINT      NOT NULL,
+                        PRIMARY KEY (period_start, category_id, type),
+                        FOREIGN KEY (category_id) REFERENCES categories (id)
+                    )
+                    """.formatted(table));
+        }
+    }
+
+    /** Replaces both tables' contents with totals recomputed from every transaction. */
+    public static void backfill(Connection con, DatabaseDialect dialect) throws SQLException {
+        SchemaMigrator.execute(con, "DELETE FROM " + MONTHLY);
+        SchemaMigrator.execute(con, "DELETE FROM " + DAILY);
+
+        SchemaMigrator.execute(con, """
+                INSERT INTO %s (period_start, category_id, type, total_minor, cnt)
+                SELECT date, category_id, type, SUM(amount_minor), COUNT(*)
+                FROM transactions
+                GROUP BY date, category_id, type
+                """.formatted(DAILY));
+
+        // Months are summed from the days, which is far fewer rows than the ledger
+        String month = dialect.monthStartSql("period_start");
+        SchemaMigrator.execute(con, """
+                INSERT INTO %s (period_start, category_id, type, total_minor, cnt)
+                SELECT %s, category_id, type, SUM(total_minor), SUM(cnt)
+                FROM %s
+                GROUP BY %s, category_id, type
+                """.formatted(MONTHLY, month, DAILY, month));
+    }
+}
@@ -0,0 +1,260 @@
+package com.expensetracker.db;
+
+import com.expensetracker.model.Money;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Brings the database schema up to the latest version at startup.
+ *
+ * Applied versions are recorded in {@code schema_version}; only newer
+ * migrations run. New steps are appended to {@link #MIGRATIONS}, never
+ * edited once released.
+ */
+public class SchemaMigrator {
+
+    private static final Logger LOG = Logger.getLogger(SchemaMigrator.class.getName());
+
+    private static final List<Migration> MIGRATIONS = List.of(
+
+            migration(1, "Create transactions table", (con, dialect) -> execute(con, """
+                    CREATE TABLE IF NOT EXISTS transactions (
+                        id       %s,
+                        amount   DOUBLE       NOT NULL,
+                        date     DATE         NOT NULL,
+                        category VARCHAR(100) NOT NULL,
+                        type     VARCHAR(16)  NOT NULL,
+                        notes    VARCHAR(1000)
+                    )
+                    """.formatted(dialect.getAutoIncrementPrimaryKey()))),
+
+            // Ledger order (date DESC, id DESC) and keyset paging
+            // Filters: type [+ category] [+ date range], category [+ date range]
+            migration(2, "Add composite indexes for ledger order and filters", (con, dialect) -> {
+                createIndexIfMissing(con, "transactions", "idx_tx_date_id", "date, id");
+                createIndexIfMissing(con, "transactions", "idx_tx_type_category_date", "type, category, date");
+                createIndexIfMissing(con, "transactions", "idx_tx_category_date", "category, date");
+            }),
+
+            // Exact money: DOUBLE amounts become BIGINT minor units at the configured scale.
+            // DDL commits on its own in MySQL, so each step checks what an interrupted run left
+            migration(3, "Store amounts as integer minor units", (con, dialect) -> {
+                if (!columnExists(con, "transactions", "amount_minor")) {
+                    execute(con, "ALTER TABLE transactions ADD COLUMN amount_minor BIGINT NOT NULL DEFAULT 0");
+                }
+                if (columnExists(con, "transactions", "amount")) {
+                    execute(con, "UPDATE transactions SET amount_minor = ROUND(amount * " + Money.FACTOR + ")");
+                    execute(con, "ALTER TABLE transactions DROP COLUMN amount");
+                }
+            }),
+
+            // Category names move to a dictionary table; rows keep an integer id
+            migration(4, "Move categories to a dictionary table", (con, dialect) -> {
+                execute(con, """
+                        CREATE TABLE IF NOT EXISTS categories (
+                            id   %s,
+                            name VARCHAR(100) NOT NULL UNIQUE
+                        )
+                        """.formatted(dialect.getAutoIncrementPrimaryKey()));
+                boolean namesLeft = columnExists(con, "transactions", "category");
+                if (namesLeft) {
+                    execute(con, """
+                            INSERT INTO categories (name)
+                            SELECT DISTINCT t.category FROM transactions t
+                            WHERE NOT EXISTS (SELECT 1 FROM categories c WHERE c.name = t.category)
+                            """);
+                }
+
+                // SQLite can only declare the foreign key inline when adding the column
+                if (!columnExists(con, "transactions", "category_id")) {
+                    execute(con, dialect == DatabaseDialect.SQLITE
+                            ? "ALTER TABLE transactions ADD COLUMN category_id INTEGER REFERENCES categories (id)"
+                            : "ALTER TABLE transactions ADD COLUMN category_id INT NULL");
+                }
+
+                // The old indexes go with the name column; once it is gone they are the new ones
+                if (namesLeft) {
+                    execute(con, """
+                            UPDATE transactions
+                            SET category_id = (SELECT c.id FROM categories c WHERE c.name = transactions.category)
+                            """);
+                    dropIndexIfExists(con, dialect, "transactions", "idx_tx_type_category_date");
+                    dropIndexIfExists(con, dialect, "transactions", "idx_tx_category_date");
+                    execute(con, "ALTER TABLE transactions DROP COLUMN category");
+                }
+
+                createIndexIfMissing(con, "transactions", "idx_tx_type_category_date", "type, category_id, date");
+                createIndexIfMissing(con, "transactions", "idx_tx_category_date", "category_id, date");
+
+                if (dialect == DatabaseDialect.MYSQL) {
+                    execute(con, "ALTER TABLE transactions MODIFY category_id INT NOT NULL");
+                    if (!foreignKeyExists(con, "transactions", "fk_tx_category")) {
+                        execute(con, """
+                                ALTER TABLE transactions
+                                    ADD CONSTRAINT fk_tx_category FOREIGN KEY (category_id) REFERENCES categories (id)
+                                """);
+                    }
+                }
+            }),
+
+            // Amount-range filters and amount sorts
+            migration(5, "Add amount index for filters", (con, dialect) ->
+                    createIndexIfMissing(con, "transactions", "idx_tx_amount_id", "amount_minor, id")),
+
+            // Daily and monthly totals for trend reports, filled from the existing rows
+            migration(6, "Add daily and monthly rollup tables", (con, dialect) -> {
+                RollupTables.create(con);
+                RollupTables.backfill(con, dialect);
+            }),
+
+            // Journaled adds carry a unique key, so a replay can tell which already reached the database
+            migration(7, "Add write keys for journal replay", (con, dialect) -> {
+                if (!columnExists(con, "transactions", "write_key")) {
+                    execute(con, "ALTER TABLE transactions ADD COLUMN write_key VARCHAR(36) NULL");
+                }
+                createIndexIfMissing(con, "transactions", "uq_tx_write_key", "write_key", true);
+            })
+    );
+
+    private SchemaMigrator() {
+        // utility class
+    }
+
+    public static int latestVersion() {
+        return MIGRATIONS.stream().mapToInt(Migration::getVersion).max().orElse(0);
+    }
+
+    // ================== MIGRATE ==================
+    public static void migrate(Connection con, DatabaseDialect dialect) throws SQLException {
+
+        execute(con, """
+                CREATE TABLE IF NOT EXISTS schema_version (
+                    version     INT PRIMARY KEY,
+                    description VARCHAR(200) NOT NULL,
+                    applied_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+                )
+                """);
+
+        int current = currentVersion(con);
+
+        List<Migration> pending = new ArrayList<>();
+        for (Migration m : MIGRATIONS) {
+            if (m.getVersion() > current) pending.add(m);
+        }
+        pending.sort(Comparator.comparingInt(Migration::getVersion));
+
+        for (Migration m : pending) {
+            LOG.info("Applying schema migration " + m.getVersion() + ": " + m.getDescription());
+
+            m.apply(con, dialect);
+
+            try (PreparedStatement ps = con.prepareStatement(
+                    "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+                ps.setInt(1, m.getVersion());
+                ps.setString(2, m.getDescription());
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    public static int currentVersion(Connection con) throws SQLException {
+        try (Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery("SELECT MAX(version) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    // ================== HELPERS ==================
+    static void execute(Connection con, String sql) throws SQLException {
+        try (Statement st = con.createStatement()) {
+            st.execute(sql);
+        }
+    }
+
+    static boolean columnExists(Connection con, String table, String column) throws SQLException {
+        try (ResultSet rs = con.getMetaData().getColumns(con.getCatalog(), null, table, null)) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static boolean foreignKeyExists(Connection con, String table, String name) throws SQLException {
+        try (ResultSet rs = con.getMetaData().getImportedKeys(con.getCatalog(), null, table)) {
+            while (rs.next()) {
+                if (name.equalsIgnoreCase(rs.getString("FK_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static void createIndexIfMissing(Connection con, String table, String index, String columns)
+            throws SQLException {
+        createIndexIfMissing(con, table, index, columns, false);
+    }
+
+    static void createIndexIfMissing(Connection con, String table, String index, String columns, boolean unique)
+            throws SQLException {
+
+        // MySQL has no CREATE INDEX IF NOT EXISTS; metadata works for every engine
+        try (ResultSet rs = con.getMetaData().getIndexInfo(con.getCatalog(), null, table, false, false)) {
+            while (rs.next()) {
+                if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return;
+                }
+            }
+        }
+        execute(con, "CREATE " + (unique ? "UNIQUE " : "") + "INDEX " + index + " ON " + table + " (" + columns + ")");
+    }
+
+    static void dropIndexIfExists(Connection con, DatabaseDialect dialect, String table, String index)
+            throws SQLException {
+
+        boolean exists = false;
+        try (ResultSet rs = con.getMetaData().getIndexInfo(con.getCatalog(), null, table, false, false)) {
+            while (rs.next() && !exists) {
+                exists = index.equalsIgnoreCase(rs.getString("INDEX_NAME"));
+            }
+        }
+        if (exists) {
+            execute(con, dialect.dropIndexSql(table, index));
+        }
+    }
+
+    private static Migration migration(int version, String description, MigrationStep step) {
+        return new Migration() {
+            @Override
+            public int getVersion() {
+                return version;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+
+            @Override
+            public void apply(Connection con, DatabaseDialect dialect) throws SQLException {
+                step.apply(con, dialect);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface MigrationStep {
+        void apply(Connection con, DatabaseDialect dialect) throws SQLException;
+    }
+}
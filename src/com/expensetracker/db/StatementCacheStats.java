@@ -0,0 +1,33 @@
+package com.expensetracker.db;
+
+/**
+ * Hit/miss counts for one SQL string in the pool's prepared statement cache.
+ */
+public final class StatementCacheStats {
+
+    private final long hits;
+    private final long misses;
+
+    public StatementCacheStats(long hits, long misses) {
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d, misses=%d (%.1f%%)", hits, misses, getHitRate() * 100);
+    }
+}
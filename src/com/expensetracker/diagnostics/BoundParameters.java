@@ -0,0 +1,86 @@
+package com.expensetracker.diagnostics;
+
+import java.time.temporal.Temporal;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * The values bound to one prepared statement, captured from its
+ * {@code set*} calls for the slow query log. Only their types are ever
+ * written out, never the values: notes, amounts and dates are the user's
+ * own data.
+ */
+public final class BoundParameters {
+
+    private Object[] values = new Object[8];
+    private int count;      // highest index bound
+    private int batchRows;
+
+    /** Tracks a statement call: {@code set*}, {@code clearParameters}, {@code addBatch} or {@code clearBatch}. */
+    public void observe(String method, Object[] args) {
+        switch (method) {
+            case "clearParameters" -> clear();
+            case "addBatch" -> {
+                if (args == null) batchRows++;
+            }
+            case "clearBatch" -> batchRows = 0;
+            default -> {
+                if (method.startsWith("set") && args != null && args.length >= 2
+                        && args[0] instanceof Integer index && index > 0) {
+                    bind(index, "setNull".equals(method) ? null : args[1]);
+                }
+            }
+        }
+    }
+
+    /** Forgets everything, e.g. when a cached statement goes back to the pool. */
+    public void reset() {
+        clear();
+        batchRows = 0;
+    }
+
+    private void bind(int index, Object value) {
+        if (index > values.length) values = Arrays.copyOf(values, Math.max(index, values.length * 2));
+        values[index - 1] = value;
+        count = Math.max(count, index);
+    }
+
+    private void clear() {
+        Arrays.fill(values, 0, count, null);
+        count = 0;
+    }
+
+    // ================== SNAPSHOT ==================
+    // Taken at each execute; a batch reports its last row and the row count
+    Object[] snapshot() {
+        return Arrays.copyOf(values, count);
+    }
+
+    // Executing a batch empties it
+    int takeBatchRows() {
+        int rows = batchRows;
+        batchRows = 0;
+        return rows;
+    }
+
+    static String redact(Object[] values) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(i + 1).append(": ").append(describe(values[i]));
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String describe(Object value) {
+        if (value == null) return "null";
+        if (value instanceof CharSequence s) return "text(" + s.length() + ")";
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return "int";
+        }
+        if (value instanceof Number) return "decimal";
+        if (value instanceof Boolean) return "bool";
+        if (value instanceof Date || value instanceof Temporal) return "date";
+        return value.getClass().getSimpleName();
+    }
+}
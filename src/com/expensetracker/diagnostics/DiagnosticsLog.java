@@ -0,0 +1,72 @@
+package com.expensetracker.diagnostics;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * The rotating log behind the slow query log and the EDT watchdog:
+ * {@code diagnostics0.log} to {@code diagnostics4.log}, 1 MB each, in
+ * {@code expensetracker.diagnostics.dir} (default {@code ~/.expense-tracker}).
+ * If the file cannot be opened, entries go to the console instead.
+ */
+final class DiagnosticsLog {
+
+    private static final int FILE_LIMIT = 1024 * 1024;
+    private static final int FILE_COUNT = 5;
+
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    static final Logger LOG = Logger.getLogger("com.expensetracker.diagnostics");
+
+    static {
+        Path dir = Paths.get(System.getProperty("expensetracker.diagnostics.dir",
+                System.getProperty("user.home") + "/.expense-tracker"));
+        try {
+            Files.createDirectories(dir);
+            FileHandler handler = new FileHandler(dir.resolve("diagnostics%g.log").toString(),
+                    FILE_LIMIT, FILE_COUNT, true);
+            handler.setFormatter(new EntryFormatter());
+            handler.setEncoding("UTF-8");
+            LOG.addHandler(handler);
+            LOG.setUseParentHandlers(false);
+        } catch (IOException | RuntimeException e) {
+            Logger.getLogger(DiagnosticsLog.class.getName())
+                    .warning("Diagnostics log not opened in " + dir + ": " + e.getMessage());
+        }
+    }
+
+    private DiagnosticsLog() {
+        // static holder
+    }
+
+    // One entry per record, continuation lines indented by the caller
+    private static final class EntryFormatter extends Formatter {
+
+        @Override
+        public String format(LogRecord record) {
+            StringBuilder sb = new StringBuilder(256)
+                    .append(TIMESTAMP.format(Instant.ofEpochMilli(record.getMillis())))
+                    .append(' ').append(record.getLevel())
+                    .append(' ').append(formatMessage(record))
+                    .append(System.lineSeparator());
+            if (record.getThrown() != null) {
+                StringWriter trace = new StringWriter();
+                record.getThrown().printStackTrace(new PrintWriter(trace));
+                sb.append(trace);
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.expensetracker.diagnostics;
+
+import com.expensetracker.metrics.LatencyHistogram;
+import com.expensetracker.metrics.Metrics;
+
+import java.awt.EventQueue;
+import java.awt.GraphicsEnvironment;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Notices when the Swing Event Dispatch Thread stops processing events for
+ * longer than {@code expensetracker.edtStall.millis} (default 500, 0 turns
+ * it off) and writes the EDT's stack at that moment to the diagnostics log,
+ * followed by the stall's total length once it ends.
+ *
+ * A background thread keeps one no-op event in the EDT queue and checks how
+ * long it has been waiting, so a stall is caught whatever blocks the EDT: a
+ * query run inline, a long layout, a lock. Stalls shorter than the check
+ * interval plus the threshold may go unreported.
+ */
+public final class EdtWatchdog {
+
+    private static final long THRESHOLD_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("expensetracker.edtStall.millis", 500));
+
+    private static final int STACK_FRAMES = 40;
+
+    private static final LatencyHistogram STALL_TIMER = Metrics.timer("ui.edt.stall");
+    private static final LongAdder STALLS = Metrics.counter("ui.edt.stalls");
+
+    private static EdtWatchdog running;
+
+    private final long intervalMillis;
+
+    // nanoTime when the pending heartbeat was posted, 0 once the EDT has run it
+    private volatile long postedAt;
+    private volatile long ranAt;
+    private volatile Thread edt;
+
+    private EdtWatchdog() {
+        this.intervalMillis = Math.max(10, TimeUnit.NANOSECONDS.toMillis(THRESHOLD_NANOS) / 4);
+    }
+
+    /** Starts watching, once per process; does nothing when disabled or headless. */
+    public static synchronized void start() {
+        if (running != null || THRESHOLD_NANOS <= 0 || GraphicsEnvironment.isHeadless()) return;
+
+        running = new EdtWatchdog();
+        Thread thread = new Thread(running::watch, "edt-watchdog");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void watch() {
+        long stalledSince = 0;
+        while (true) {
+            long now = System.nanoTime();
+            long posted = postedAt;
+
+            if (posted == 0) {
+                if (stalledSince != 0) {
+                    recovered(ranAt - stalledSince);
+                    stalledSince = 0;
+                }
+                postedAt = now;
+                EventQueue.invokeLater(this::heartbeat);
+            } else if (stalledSince == 0 && now - posted >= THRESHOLD_NANOS) {
+                stalledSince = posted;
+                stalled(now - posted);
+            }
+
+            try {
+                Thread.sleep(intervalMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Runs on the EDT; the EDT thread can be replaced after an uncaught exception
+    private void heartbeat() {
+        edt = Thread.currentThread();
+        ranAt = System.nanoTime();
+        postedAt = 0;
+    }
+
+    // ================== LOGGING ==================
+    private void stalled(long nanos) {
+        STALLS.increment();
+
+        StringBuilder sb = new StringBuilder(2048)
+                .append("Event Dispatch Thread blocked for ").append(TimeUnit.NANOSECONDS.toMillis(nanos))
+                .append(" ms");
+        Thread thread = edt;
+        if (thread == null) {
+            sb.append(" before handling its first event");
+        } else {
+            sb.append(", ").append(thread.getName()).append(" is ").append(thread.getState());
+            StackTraceElement[] stack = thread.getStackTrace();
+            for (int i = 0; i < Math.min(stack.length, STACK_FRAMES); i++) {
+                sb.append(System.lineSeparator()).append("    at ").append(stack[i]);
+            }
+            if (stack.length > STACK_FRAMES) {
+                sb.append(System.lineSeparator()).append("    ... ").append(stack.length - STACK_FRAMES).append(" more");
+            }
+        }
+        DiagnosticsLog.LOG.warning(sb.toString());
+    }
+
+    private void recovered(long nanos) {
+        STALL_TIMER.record(nanos);
+        DiagnosticsLog.LOG.info("Event Dispatch Thread responsive again after "
+                + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms");
+    }
+}
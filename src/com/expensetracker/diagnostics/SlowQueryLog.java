@@ -0,0 +1,206 @@
+package com.expensetracker.diagnostics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Logs repository calls slower than {@code expensetracker.slowQuery.millis}
+ * (default 250, 0 turns it off) to the diagnostics log.
+ *
+ * Each entry names the call, where in the application it came from, and
+ * every statement it executed: SQL with whitespace collapsed, execution
+ * time, rows read or updated, and the types of the bound parameters (never
+ * their values). Statements are reported by the connection pool through
+ * {@link #executed}; only those run inside a watched call are kept. Rows
+ * read are those the DAO reports through {@link #rowRead}; queries it does
+ * not map into transactions show "?".
+ */
+public final class SlowQueryLog {
+
+    private static final long THRESHOLD_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("expensetracker.slowQuery.millis", 250));
+
+    private static final int MAX_STATEMENTS = 20;
+    private static final int MAX_SQL_LENGTH = 2000;
+    private static final int ORIGIN_FRAMES = 6;
+
+    // Frames skipped when looking for the caller of a slow call
+    private static final String[] INTERNAL_PACKAGES = {
+            "com.expensetracker.diagnostics.", "com.expensetracker.metrics.", "com.expensetracker.dao.",
+            "java.lang.reflect.", "jdk.internal.reflect.", "jdk.proxy", "com.sun.proxy."
+    };
+
+    private static final ThreadLocal<Call> CURRENT = new ThreadLocal<>();
+
+    private SlowQueryLog() {
+        // static utility
+    }
+
+    public static boolean isEnabled() {
+        return THRESHOLD_NANOS > 0;
+    }
+
+    // ================== WATCHING ==================
+    /**
+     * Wraps {@code target} so calls through {@code type} taking longer than
+     * the threshold are logged. Callbacks passed in (row handlers) run
+     * inside the call and count towards its time.
+     */
+    public static <T> T watch(Class<T> type, T target) {
+        if (!isEnabled()) return target;
+
+        String name = target.getClass().getSimpleName();
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> invoke(target, method, args);
+                };
+            }
+            // A call made from inside another belongs to the outer one
+            if (CURRENT.get() != null) return invoke(target, method, args);
+
+            Call call = new Call();
+            CURRENT.set(call);
+            long start = System.nanoTime();
+            Throwable failure = null;
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                failure = e.getCause();
+                throw failure;
+            } finally {
+                CURRENT.remove();
+                long elapsed = System.nanoTime() - start;
+                if (elapsed >= THRESHOLD_NANOS) {
+                    log(name + "." + method.getName(), elapsed, call, failure);
+                }
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Records a statement execution, with {@code result} as returned by the
+     * driver, for the watched call running on this thread, if any.
+     */
+    public static void executed(String sql, BoundParameters parameters, long nanos, Object result) {
+        int batchRows = parameters.takeBatchRows();
+        Call call = CURRENT.get();
+        if (call == null) return;
+
+        call.reading = null;
+        if (call.statements.size() == MAX_STATEMENTS) {
+            call.omitted++;
+            return;
+        }
+        Execution execution = new Execution(sql, parameters.snapshot(), batchRows, nanos);
+        call.statements.add(execution);
+
+        if (result instanceof Integer n) execution.rows = n;
+        else if (result instanceof Long n) execution.rows = n;
+        else if (result instanceof int[] counts) {
+            execution.rows = 0;
+            for (int n : counts) execution.rows += Math.max(n, 0);
+        } else if (result instanceof ResultSet) {
+            call.reading = execution;
+        }
+    }
+
+    /**
+     * Counts one row read by the watched call on this thread towards its
+     * last query. Called by the DAO per mapped row, so no reflection is
+     * added between it and the result set.
+     */
+    public static void rowRead() {
+        if (!isEnabled()) return;
+        Call call = CURRENT.get();
+        if (call == null || call.reading == null) return;
+        Execution e = call.reading;
+        e.rows = Math.max(e.rows, 0) + 1;
+    }
+
+    // ================== LOGGING ==================
+    private static void log(String name, long nanos, Call call, Throwable failure) {
+        StringBuilder sb = new StringBuilder(512)
+                .append("Slow call ").append(name).append(" took ").append(millis(nanos)).append(" ms");
+        if (failure != null) sb.append(", failed: ").append(failure);
+
+        for (StackTraceElement frame : origin()) {
+            sb.append(System.lineSeparator()).append("    from ").append(frame);
+        }
+        for (Execution e : call.statements) {
+            sb.append(System.lineSeparator()).append("    ").append(millis(e.nanos)).append(" ms, ")
+              .append(e.rows < 0 ? "?" : String.valueOf(e.rows)).append(" rows: ").append(shape(e.sql))
+              .append(' ').append(BoundParameters.redact(e.parameters));
+            if (e.batchRows > 0) sb.append(" (last of ").append(e.batchRows).append(" batched rows)");
+        }
+        if (call.omitted > 0) {
+            sb.append(System.lineSeparator()).append("    ... ").append(call.omitted).append(" more statements");
+        }
+        DiagnosticsLog.LOG.warning(sb.toString());
+    }
+
+    private static List<StackTraceElement> origin() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> !isInternal(f.getClassName()))
+                .limit(ORIGIN_FRAMES)
+                .map(StackWalker.StackFrame::toStackTraceElement)
+                .collect(Collectors.toList()));
+    }
+
+    private static boolean isInternal(String className) {
+        for (String prefix : INTERNAL_PACKAGES) {
+            if (className.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    private static String shape(String sql) {
+        String collapsed = sql.strip().replaceAll("\\s+", " ");
+        return collapsed.length() <= MAX_SQL_LENGTH ? collapsed : collapsed.substring(0, MAX_SQL_LENGTH) + "...";
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1f", nanos / 1e6);
+    }
+
+    // The statements run by one watched call, on its own thread
+    private static final class Call {
+        private final List<Execution> statements = new ArrayList<>();
+        private int omitted;
+        private Execution reading; // last query kept, rows read are counted here
+    }
+
+    private static final class Execution {
+
+        private final String sql;
+        private final Object[] parameters;
+        private final int batchRows;
+        private final long nanos;
+        private long rows = -1; // unknown, e.g. execute() returning a flag or rows not reported
+
+        private Execution(String sql, Object[] parameters, int batchRows, long nanos) {
+            this.sql = sql;
+            this.parameters = parameters;
+            this.batchRows = batchRows;
+            this.nanos = nanos;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.expensetracker.exporter;
+
+import com.expensetracker.model.Money;
+import com.expensetracker.model.Transaction;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV with the columns {@code CsvStatementReader} reads, so an
+ * export can be imported again. Starts with a UTF-8 byte order mark, which
+ * spreadsheet programs need to detect the encoding.
+ */
+final class CsvExportWriter implements ExportWriter {
+
+    private static final String HEADER = "\uFEFFid,date,type,category,amount,notes\r\n";
+
+    private final OutputStream out;
+
+    CsvExportWriter(OutputStream out) throws IOException {
+        this.out = out;
+        out.write(HEADER.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public byte[] format(List<Transaction> rows) {
+        StringBuilder sb = new StringBuilder(rows.size() * 64);
+        for (Transaction t : rows) {
+            sb.append(t.getId()).append(',')
+              .append(t.getDate()).append(',')
+              .append(t.getType()).append(',');
+            appendField(sb, t.getCategory());
+            sb.append(',').append(Money.toPlainString(t.getAmount())).append(',');
+            appendField(sb, t.getNotes());
+            sb.append("\r\n");
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void writeRows(byte[] formatted, int rowCount) throws IOException {
+        out.write(formatted);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    // Quoted only when needed; embedded quotes are doubled
+    private static void appendField(StringBuilder sb, String value) {
+        if (value == null || value.isEmpty()) return;
+
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            sb.append(value);
+            return;
+        }
+
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') sb.append('"');
+            sb.append(c);
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,39 @@
+package com.expensetracker.exporter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+public enum ExportFormat {
+    CSV(".csv"),
+    CSV_GZIP(".csv.gz"),
+    XLSX(".xlsx");
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    ExportWriter open(OutputStream out) throws IOException {
+        return switch (this) {
+            case CSV -> new CsvExportWriter(new BufferedOutputStream(out, BUFFER_BYTES));
+            case CSV_GZIP -> new CsvExportWriter(new GZIPOutputStream(out, BUFFER_BYTES));
+            case XLSX -> new XlsxExportWriter(new BufferedOutputStream(out, BUFFER_BYTES));
+        };
+    }
+
+    public static ExportFormat fromFileName(String fileName) {
+        String lower = fileName.toLowerCase();
+        if (lower.endsWith(".gz")) return CSV_GZIP;
+        if (lower.endsWith(".xlsx")) return XLSX;
+        return CSV;
+    }
+}
@@ -0,0 +1,8 @@
+package com.expensetracker.exporter;
+
+@FunctionalInterface
+public interface ExportProgressListener {
+
+    /** Called after each chunk is written. */
+    void onProgress(long rowsWritten, double rowsPerSecond);
+}
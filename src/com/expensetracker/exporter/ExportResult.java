@@ -0,0 +1,48 @@
+package com.expensetracker.exporter;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of one {@link TransactionExporter} run.
+ */
+public final class ExportResult {
+
+    private final Path file;
+    private final long rowsWritten;
+    private final long fileBytes;
+    private final long elapsedMillis;
+
+    public ExportResult(Path file, long rowsWritten, long fileBytes, long elapsedMillis) {
+        this.file = file;
+        this.rowsWritten = rowsWritten;
+        this.fileBytes = fileBytes;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    /** Size of the finished file, after compression. */
+    public long getFileBytes() {
+        return fileBytes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? rowsWritten : rowsWritten * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Exported %d rows to %s (%.1f MB) in %.1f s, %.0f rows/s",
+                rowsWritten, file, fileBytes / (1024.0 * 1024.0), elapsedMillis / 1000.0, getRowsPerSecond());
+    }
+}
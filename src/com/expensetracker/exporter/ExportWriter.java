@@ -0,0 +1,19 @@
+package com.expensetracker.exporter;
+
+import com.expensetracker.model.Transaction;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Output side of one export. {@link #format} turns a chunk of rows into
+ * bytes and may run on several threads at once; {@link #writeRows} is
+ * called from one thread, with the chunks in row order.
+ */
+interface ExportWriter extends Closeable {
+
+    byte[] format(List<Transaction> rows);
+
+    void writeRows(byte[] formatted, int rowCount) throws IOException;
+}
@@ -0,0 +1,186 @@
+package com.expensetracker.exporter;
+
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionFilter;
+import com.expensetracker.service.TransactionService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes the transactions matching a filter to a CSV, gzipped CSV or XLSX
+ * file.
+ *
+ * Rows come from a forward-only cursor and are collected into fixed-size
+ * chunks. Each chunk is formatted on a worker pool while the cursor keeps
+ * reading; finished chunks are written in order through one buffered file
+ * channel. At most two chunks per worker are in memory at once, so row
+ * count does not matter. The file is written under {@code <name>.part} and
+ * renamed when complete; a failed or cancelled export leaves nothing.
+ */
+public class TransactionExporter {
+
+    private static final int DEFAULT_CHUNK_SIZE =
+            Integer.getInteger("expensetracker.export.chunkSize", 5000);
+
+    private static final int DEFAULT_THREADS =
+            Integer.getInteger("expensetracker.export.threads", Runtime.getRuntime().availableProcessors());
+
+    private final TransactionService transactionService;
+    private final int chunkSize;
+    private final int threads;
+
+    private volatile boolean cancelled;
+
+    public TransactionExporter(TransactionService transactionService) {
+        this(transactionService, DEFAULT_CHUNK_SIZE, DEFAULT_THREADS);
+    }
+
+    public TransactionExporter(TransactionService transactionService, int chunkSize, int threads) {
+        if (chunkSize <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("Invalid export settings: chunkSize=" + chunkSize
+                    + ", threads=" + threads);
+        }
+        this.transactionService = transactionService;
+        this.chunkSize = chunkSize;
+        this.threads = threads;
+    }
+
+    /** Stops a running export; it then throws {@link CancellationException}. */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public ExportResult export(TransactionFilter filter, Path file) throws IOException, SQLException {
+        return export(filter, file, ExportFormat.fromFileName(file.getFileName().toString()), null);
+    }
+
+    // ================= EXPORT =================
+    public ExportResult export(TransactionFilter filter, Path file, ExportFormat format,
+                               ExportProgressListener listener) throws IOException, SQLException {
+
+        long start = System.nanoTime();
+        Path part = file.resolveSibling(file.getFileName() + ".part");
+        ExecutorService pool = createPool();
+        boolean complete = false;
+        long rows;
+
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             ExportWriter writer = format.open(Channels.newOutputStream(channel))) {
+
+            Pipeline pipeline = new Pipeline(writer, pool, listener, start);
+            transactionService.forEachFiltered(filter, pipeline::accept);
+            rows = pipeline.finish();
+            complete = true;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdownNow();
+            if (!complete) Files.deleteIfExists(part);
+        }
+
+        Files.move(part, file, StandardCopyOption.REPLACE_EXISTING);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return new ExportResult(file, rows, Files.size(file), elapsedMillis);
+    }
+
+    private ExecutorService createPool() {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "export-worker-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Runs on the thread reading the cursor; checked failures leave as
+    // UncheckedIOException so they can pass through the row callback
+    private final class Pipeline {
+
+        private final ExportWriter writer;
+        private final ExecutorService pool;
+        private final ExportProgressListener listener;
+        private final long startNanos;
+
+        private final ArrayDeque<Chunk> inFlight = new ArrayDeque<>();
+        private List<Transaction> chunk = new ArrayList<>(chunkSize);
+        private long rowsWritten;
+
+        Pipeline(ExportWriter writer, ExecutorService pool, ExportProgressListener listener, long startNanos) {
+            this.writer = writer;
+            this.pool = pool;
+            this.listener = listener;
+            this.startNanos = startNanos;
+        }
+
+        void accept(Transaction t) {
+            chunk.add(t);
+            if (chunk.size() == chunkSize) submit();
+        }
+
+        long finish() {
+            if (!chunk.isEmpty()) submit();
+            while (!inFlight.isEmpty()) writeOldest();
+            return rowsWritten;
+        }
+
+        private void submit() {
+            if (cancelled) {
+                throw new CancellationException("Export cancelled");
+            }
+            if (inFlight.size() >= threads * 2) writeOldest();
+
+            List<Transaction> rows = chunk;
+            inFlight.add(new Chunk(pool.submit(() -> writer.format(rows)), rows.size()));
+            chunk = new ArrayList<>(chunkSize);
+        }
+
+        private void writeOldest() {
+            Chunk oldest = inFlight.removeFirst();
+            try {
+                writer.writeRows(oldest.bytes.get(), oldest.rows);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Export interrupted");
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Failed to format export rows", e.getCause());
+            }
+            rowsWritten += oldest.rows;
+
+            if (listener != null) {
+                double seconds = (System.nanoTime() - startNanos) / 1e9;
+                listener.onProgress(rowsWritten, seconds > 0 ? rowsWritten / seconds : rowsWritten);
+            }
+        }
+    }
+
+    private static final class Chunk {
+
+        private final Future<byte[]> bytes;
+        private final int rows;
+
+        Chunk(Future<byte[]> bytes, int rows) {
+            this.bytes = bytes;
+            this.rows = rows;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.expensetracker.exporter;
+
+import com.expensetracker.model.Money;
+import com.expensetracker.model.Transaction;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Minimal streaming XLSX writer: each sheet is written as one zip entry
+ * while rows arrive, so memory use does not grow with the export.
+ *
+ * Strings are inline rather than in a shared string table, and there is no
+ * styles part; dates are ISO text and amounts plain numbers. A sheet holds
+ * at most {@link #MAX_SHEET_ROWS} rows; larger exports continue on
+ * further sheets. The workbook parts listing the sheets go last.
+ */
+final class XlsxExportWriter implements ExportWriter {
+
+    // Excel's row limit, less the header row
+    static final int MAX_SHEET_ROWS = 1_048_575;
+
+    private static final String SHEET_START =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+            + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>"
+            + "<row><c t=\"inlineStr\"><is><t>Id</t></is></c><c t=\"inlineStr\"><is><t>Date</t></is></c>"
+            + "<c t=\"inlineStr\"><is><t>Type</t></is></c><c t=\"inlineStr\"><is><t>Category</t></is></c>"
+            + "<c t=\"inlineStr\"><is><t>Amount</t></is></c><c t=\"inlineStr\"><is><t>Notes</t></is></c></row>";
+
+    private static final String SHEET_END = "</sheetData></worksheet>";
+
+    private static final String RELATIONSHIPS_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+    private static final String OFFICE_REL = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private final ZipOutputStream zip;
+    private int sheets;
+    private int sheetRows;
+
+    XlsxExportWriter(OutputStream out) throws IOException {
+        this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        startSheet();
+    }
+
+    @Override
+    public byte[] format(List<Transaction> rows) {
+        StringBuilder sb = new StringBuilder(rows.size() * 256);
+        for (Transaction t : rows) {
+            sb.append("<row><c><v>").append(t.getId()).append("</v></c>");
+            appendText(sb, t.getDate().toString());
+            appendText(sb, t.getType().name());
+            appendText(sb, t.getCategory());
+            sb.append("<c><v>").append(Money.toPlainString(t.getAmount())).append("</v></c>");
+            appendText(sb, t.getNotes());
+            sb.append("</row>");
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Chunks are never split, so a sheet ends early rather than mid-chunk
+    @Override
+    public void writeRows(byte[] formatted, int rowCount) throws IOException {
+        if (rowCount > MAX_SHEET_ROWS) {
+            throw new IllegalArgumentException("Chunk of " + rowCount + " rows does not fit on a sheet");
+        }
+        if (sheetRows + rowCount > MAX_SHEET_ROWS) {
+            endSheet();
+            startSheet();
+        }
+        zip.write(formatted);
+        sheetRows += rowCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            endSheet();
+            writeWorkbook();
+        } finally {
+            zip.close();
+        }
+    }
+
+    // ================== PARTS ==================
+    private void startSheet() throws IOException {
+        sheets++;
+        sheetRows = 0;
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheets + ".xml"));
+        zip.write(SHEET_START.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void endSheet() throws IOException {
+        zip.write(SHEET_END.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private void writeWorkbook() throws IOException {
+        StringBuilder types = new StringBuilder(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+                + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+                + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+                + "<Override PartName=\"/xl/workbook.xml\" "
+                + "ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>");
+        StringBuilder workbook = new StringBuilder(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" "
+                + "xmlns:r=\"" + OFFICE_REL + "\"><sheets>");
+        StringBuilder rels = new StringBuilder(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<Relationships xmlns=\"" + RELATIONSHIPS_NS + "\">");
+
+        for (int i = 1; i <= sheets; i++) {
+            types.append("<Override PartName=\"/xl/worksheets/sheet").append(i).append(".xml\" ")
+                 .append("ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+            workbook.append("<sheet name=\"Transactions").append(i == 1 ? "" : " " + i)
+                    .append("\" sheetId=\"").append(i).append("\" r:id=\"rId").append(i).append("\"/>");
+            rels.append("<Relationship Id=\"rId").append(i).append("\" Type=\"").append(OFFICE_REL)
+                .append("/worksheet\" Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+        }
+
+        writeEntry("[Content_Types].xml", types.append("</Types>"));
+        writeEntry("xl/workbook.xml", workbook.append("</sheets></workbook>"));
+        writeEntry("xl/_rels/workbook.xml.rels", rels.append("</Relationships>"));
+        writeEntry("_rels/.rels", "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<Relationships xmlns=\"" + RELATIONSHIPS_NS + "\">"
+                + "<Relationship Id=\"rId1\" Type=\"" + OFFICE_REL + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                + "</Relationships>");
+    }
+
+    private void writeEntry(String name, CharSequence content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.toString().getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    // ================== ESCAPING ==================
+    private static void appendText(StringBuilder sb, String value) {
+        if (value == null || value.isEmpty()) {
+            sb.append("<c/>");
+            return;
+        }
+        sb.append("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> sb.append("&amp;");
+                case '<' -> sb.append("&lt;");
+                case '>' -> sb.append("&gt;");
+                case '"' -> sb.append("&quot;");
+                default -> {
+                    // Control characters other than tab and newlines are not allowed in XML
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') sb.append(c);
+                }
+            }
+        }
+        sb.append("</t></is></c>");
+    }
+}
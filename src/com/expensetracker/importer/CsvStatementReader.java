@@ -0,0 +1,174 @@
+package com.expensetracker.importer;
+
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming CSV reader. The first line must be a header naming at least a
+ * date and an amount column; category, type and notes are optional.
+ */
+public class CsvStatementReader implements StatementReader {
+
+    private final BufferedReader reader;
+    private final DateTimeFormatter dateFormat;
+
+    // Reused per row to avoid allocating a new list and builder for every line
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+
+    private int dateCol = -1;
+    private int amountCol = -1;
+    private int categoryCol = -1;
+    private int typeCol = -1;
+    private int notesCol = -1;
+
+    private long lineNumber;
+    private long recordLine;
+
+    public CsvStatementReader(Path file) throws IOException {
+        this(file, DateTimeFormatter.ISO_LOCAL_DATE);
+    }
+
+    public CsvStatementReader(Path file, DateTimeFormatter dateFormat) throws IOException {
+        this.reader = StatementRows.open(file);
+        this.dateFormat = dateFormat;
+        readHeader();
+    }
+
+    // ================= HEADER =================
+    private void readHeader() throws IOException {
+
+        if (!readRecord()) {
+            throw new IOException("CSV file is empty");
+        }
+
+        for (int i = 0; i < fields.size(); i++) {
+            String name = fields.get(i).trim().toLowerCase();
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+
+            switch (name) {
+                case "date", "transaction date", "posted date" -> dateCol = i;
+                case "amount", "value" -> amountCol = i;
+                case "category" -> categoryCol = i;
+                case "type", "transaction type", "dr/cr" -> typeCol = i;
+                case "notes", "description", "memo", "narration" -> notesCol = i;
+                default -> { }
+            }
+        }
+
+        if (dateCol < 0 || amountCol < 0) {
+            throw new IOException("CSV header must contain 'date' and 'amount' columns");
+        }
+    }
+
+    // ================= NEXT ROW =================
+    @Override
+    public Transaction next() throws IOException, StatementParseException {
+
+        do {
+            if (!readRecord()) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        long signed = StatementRows.parseAmount(column(amountCol), recordLine);
+        TransactionType type = StatementRows.resolveType(column(typeCol), signed, recordLine);
+
+        LocalDate date;
+        try {
+            date = LocalDate.parse(column(dateCol).trim(), dateFormat);
+        } catch (DateTimeParseException | NullPointerException e) {
+            throw new StatementParseException(recordLine, "Invalid date: " + column(dateCol), e);
+        }
+
+        return new Transaction(
+                Math.abs(signed),
+                date,
+                StatementRows.blankToDefault(column(categoryCol), StatementRows.DEFAULT_CATEGORY),
+                type,
+                StatementRows.blankToDefault(column(notesCol), "")
+        );
+    }
+
+    @Override
+    public long getLineNumber() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // ================= CSV TOKENIZER =================
+    // Splits one record into fields, following quoted values across line breaks
+    private boolean readRecord() throws IOException {
+
+        String line = reader.readLine();
+        if (line == null) {
+            return false;
+        }
+
+        lineNumber++;
+        recordLine = lineNumber;
+        fields.clear();
+        field.setLength(0);
+
+        boolean quoted = false;
+
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+
+                if (quoted) {
+                    if (c == '"') {
+                        if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+
+            if (!quoted) {
+                break;
+            }
+
+            line = reader.readLine();
+            if (line == null) {
+                break;
+            }
+            lineNumber++;
+            field.append('\n');
+        }
+
+        fields.add(field.toString());
+        return true;
+    }
+
+    private String column(int index) {
+        return index >= 0 && index < fields.size() ? fields.get(index) : null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.expensetracker.importer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public enum ImportFormat {
+    CSV,
+    OFX,
+    QIF;
+
+    public StatementReader open(Path file) throws IOException {
+        return switch (this) {
+            case CSV -> new CsvStatementReader(file);
+            case OFX -> new OfxStatementReader(file);
+            case QIF -> new QifStatementReader(file);
+        };
+    }
+
+    public static ImportFormat fromFileName(String fileName) {
+        String lower = fileName.toLowerCase();
+        if (lower.endsWith(".ofx") || lower.endsWith(".qfx")) return OFX;
+        if (lower.endsWith(".qif")) return QIF;
+        return CSV;
+    }
+}
@@ -0,0 +1,8 @@
+package com.expensetracker.importer;
+
+@FunctionalInterface
+public interface ImportProgressListener {
+
+    /** Called after each chunk is written. */
+    void onProgress(long rowsRead, long rowsImported, long rowsRejected, double rowsPerSecond);
+}
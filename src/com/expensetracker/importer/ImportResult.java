@@ -0,0 +1,55 @@
+package com.expensetracker.importer;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of one {@link TransactionImporter} run.
+ */
+public final class ImportResult {
+
+    private final long rowsRead;
+    private final long rowsImported;
+    private final long rowsRejected;
+    private final long elapsedMillis;
+    private final Path errorLog;
+
+    public ImportResult(long rowsRead, long rowsImported, long rowsRejected,
+                        long elapsedMillis, Path errorLog) {
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.rowsRejected = rowsRejected;
+        this.elapsedMillis = elapsedMillis;
+        this.errorLog = errorLog;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? rowsRead : rowsRead * 1000.0 / elapsedMillis;
+    }
+
+    /** Per-row error log, or {@code null} when every row was accepted. */
+    public Path getErrorLog() {
+        return errorLog;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Imported %d of %d rows (%d rejected) in %.1f s, %.0f rows/s",
+                rowsImported, rowsRead, rowsRejected, elapsedMillis / 1000.0, getRowsPerSecond());
+    }
+}
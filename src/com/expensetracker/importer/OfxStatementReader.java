@@ -0,0 +1,158 @@
+package com.expensetracker.importer;
+
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Streaming OFX reader. Handles both SGML (OFX 1.x, unclosed leaf tags) and
+ * XML (OFX 2.x) bodies by scanning tags instead of building a document.
+ * Only {@code STMTTRN} blocks are turned into transactions.
+ */
+public class OfxStatementReader implements StatementReader {
+
+    private final BufferedReader reader;
+    private final StringBuilder buffer = new StringBuilder();
+
+    private long lineNumber = 1;
+    private long recordLine;
+
+    private String trnType;
+    private String posted;
+    private String amount;
+    private String name;
+    private String memo;
+
+    public OfxStatementReader(Path file) throws IOException {
+        this.reader = StatementRows.open(file);
+    }
+
+    // ================= NEXT ROW =================
+    @Override
+    public Transaction next() throws IOException, StatementParseException {
+
+        boolean inTransaction = false;
+        String tag;
+
+        while ((tag = nextTag()) != null) {
+
+            if (tag.equals("STMTTRN")) {
+                inTransaction = true;
+                recordLine = lineNumber;
+                trnType = posted = amount = name = memo = null;
+                continue;
+            }
+
+            if (!inTransaction) {
+                continue;
+            }
+
+            switch (tag) {
+                case "TRNTYPE" -> trnType = nextValue();
+                case "DTPOSTED" -> posted = nextValue();
+                case "TRNAMT" -> amount = nextValue();
+                case "NAME" -> name = nextValue();
+                case "MEMO" -> memo = nextValue();
+                case "/STMTTRN" -> {
+                    return buildTransaction();
+                }
+                default -> { }
+            }
+        }
+        return null;
+    }
+
+    private Transaction buildTransaction() throws StatementParseException {
+
+        long signed = StatementRows.parseAmount(amount, recordLine);
+        TransactionType type = StatementRows.resolveType(trnType, signed, recordLine);
+
+        if (posted == null || posted.length() < 8) {
+            throw new StatementParseException(recordLine, "Invalid DTPOSTED: " + posted);
+        }
+
+        LocalDate date;
+        try {
+            // DTPOSTED is YYYYMMDD optionally followed by time and zone
+            date = LocalDate.of(
+                    Integer.parseInt(posted.substring(0, 4)),
+                    Integer.parseInt(posted.substring(4, 6)),
+                    Integer.parseInt(posted.substring(6, 8)));
+        } catch (NumberFormatException | DateTimeException e) {
+            throw new StatementParseException(recordLine, "Invalid DTPOSTED: " + posted, e);
+        }
+
+        String notes = name == null ? memo : (memo == null ? name : name + " - " + memo);
+
+        return new Transaction(
+                Math.abs(signed),
+                date,
+                StatementRows.DEFAULT_CATEGORY,
+                type,
+                StatementRows.blankToDefault(notes, "")
+        );
+    }
+
+    @Override
+    public long getLineNumber() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // ================= TAG SCANNER =================
+    private String nextTag() throws IOException {
+        int c;
+        while ((c = read()) != -1 && c != '<') {
+            // skip text outside of interesting tags
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        buffer.setLength(0);
+        while ((c = read()) != -1 && c != '>') {
+            buffer.append((char) c);
+        }
+        return buffer.toString().trim().toUpperCase();
+    }
+
+    // Reads the value that follows a leaf tag, up to the next '<'
+    private String nextValue() throws IOException {
+        buffer.setLength(0);
+        int c;
+        while (true) {
+            reader.mark(1);
+            c = reader.read();
+            if (c == -1) {
+                break;
+            }
+            if (c == '<') {
+                reader.reset();
+                break;
+            }
+            if (c == '\n') {
+                lineNumber++;
+            }
+            buffer.append((char) c);
+        }
+        String value = buffer.toString().trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private int read() throws IOException {
+        int c = reader.read();
+        if (c == '\n') {
+            lineNumber++;
+        }
+        return c;
+    }
+}
@@ -0,0 +1,115 @@
+package com.expensetracker.importer;
+
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Streaming QIF reader. Each record is a run of single-letter prefixed lines
+ * terminated by {@code ^}.
+ */
+public class QifStatementReader implements StatementReader {
+
+    private static final DateTimeFormatter DEFAULT_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("M/d/[yyyy][yy]");
+
+    private final BufferedReader reader;
+    private final DateTimeFormatter dateFormat;
+
+    private long lineNumber;
+    private long recordLine;
+
+    public QifStatementReader(Path file) throws IOException {
+        this(file, DEFAULT_DATE_FORMAT);
+    }
+
+    public QifStatementReader(Path file, DateTimeFormatter dateFormat) throws IOException {
+        this.reader = StatementRows.open(file);
+        this.dateFormat = dateFormat;
+    }
+
+    // ================= NEXT ROW =================
+    @Override
+    public Transaction next() throws IOException, StatementParseException {
+
+        String date = null;
+        String amount = null;
+        String category = null;
+        String payee = null;
+        String memo = null;
+        boolean hasData = false;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+
+            if (line.isBlank() || line.startsWith("!")) {
+                continue;
+            }
+            if (!hasData) {
+                recordLine = lineNumber;
+                hasData = true;
+            }
+
+            char code = line.charAt(0);
+            String value = line.substring(1).trim();
+
+            switch (code) {
+                case 'D' -> date = value;
+                case 'T', 'U' -> amount = value;
+                case 'L' -> category = value;
+                case 'P' -> payee = value;
+                case 'M' -> memo = value;
+                case '^' -> {
+                    return buildTransaction(date, amount, category, payee, memo);
+                }
+                default -> { }
+            }
+        }
+
+        // Tolerate a missing terminator on the last record
+        return hasData && amount != null ? buildTransaction(date, amount, category, payee, memo) : null;
+    }
+
+    private Transaction buildTransaction(String dateText, String amountText, String category,
+                                         String payee, String memo) throws StatementParseException {
+
+        long signed = StatementRows.parseAmount(amountText, recordLine);
+        TransactionType type = signed < 0 ? TransactionType.EXPENSE : TransactionType.INCOME;
+
+        LocalDate date;
+        try {
+            date = LocalDate.parse(dateText.replace('\'', '/').replace(' ', '0'), dateFormat);
+        } catch (DateTimeParseException | NullPointerException e) {
+            throw new StatementParseException(recordLine, "Invalid date: " + dateText, e);
+        }
+
+        // QIF categories may carry a subcategory ("Food:Groceries"); keep the top level
+        String topCategory = category == null ? null : category.split(":", 2)[0];
+        String notes = payee == null ? memo : (memo == null ? payee : payee + " - " + memo);
+
+        return new Transaction(
+                Math.abs(signed),
+                date,
+                StatementRows.blankToDefault(topCategory, StatementRows.DEFAULT_CATEGORY),
+                type,
+                StatementRows.blankToDefault(notes, "")
+        );
+    }
+
+    @Override
+    public long getLineNumber() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
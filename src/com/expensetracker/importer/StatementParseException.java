@@ -0,0 +1,20 @@
+package com.expensetracker.importer;
+
+public class StatementParseException extends Exception {
+
+    private final long lineNumber;
+
+    public StatementParseException(long lineNumber, String message) {
+        super(message);
+        this.lineNumber = lineNumber;
+    }
+
+    public StatementParseException(long lineNumber, String message, Throwable cause) {
+        super(message, cause);
+        this.lineNumber = lineNumber;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+}
@@ -0,0 +1,23 @@
+package com.expensetracker.importer;
+
+import com.expensetracker.model.Transaction;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Pull-style reader over a bank statement. Rows are parsed one at a time so
+ * the file never has to fit in memory.
+ */
+public interface StatementReader extends Closeable {
+
+    /**
+     * Returns the next transaction, or {@code null} at end of input.
+     * A {@link StatementParseException} only rejects the current record;
+     * the reader can keep going afterwards.
+     */
+    Transaction next() throws IOException, StatementParseException;
+
+    /** Line number of the record returned (or rejected) last. */
+    long getLineNumber();
+}
@@ -0,0 +1,79 @@
+package com.expensetracker.importer;
+
+import com.expensetracker.model.Money;
+import com.expensetracker.model.TransactionType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Parsing helpers shared by the statement readers.
+ */
+final class StatementRows {
+
+    static final String DEFAULT_CATEGORY = "Uncategorized";
+
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    private StatementRows() {
+        // utility class
+    }
+
+    // Large buffered reader over a file channel; memory stays at one buffer
+    static BufferedReader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        return new BufferedReader(
+                new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8),
+                READ_BUFFER_SIZE);
+    }
+
+    // Signed amount in minor units (see Money)
+    static long parseAmount(String text, long line) throws StatementParseException {
+        if (text == null || text.isBlank()) {
+            throw new StatementParseException(line, "Amount is missing");
+        }
+
+        String cleaned = text.trim().replace(",", "");
+        boolean negative = cleaned.startsWith("(") && cleaned.endsWith(")");
+        if (negative) {
+            cleaned = cleaned.substring(1, cleaned.length() - 1);
+        }
+
+        try {
+            long value = Money.parse(cleaned);
+            return negative ? -value : value;
+        } catch (NumberFormatException e) {
+            throw new StatementParseException(line, "Invalid amount: " + text, e);
+        }
+    }
+
+    /**
+     * Resolves the type from an explicit column when present, otherwise from
+     * the sign of the amount (negative means money going out).
+     */
+    static TransactionType resolveType(String typeText, long signedAmount, long line)
+            throws StatementParseException {
+
+        if (typeText == null || typeText.isBlank()) {
+            return signedAmount < 0 ? TransactionType.EXPENSE : TransactionType.INCOME;
+        }
+
+        return switch (typeText.trim().toUpperCase()) {
+            case "INCOME", "CREDIT", "CR", "DEP", "DEPOSIT", "INT", "DIV" -> TransactionType.INCOME;
+            case "EXPENSE", "DEBIT", "DR", "PAYMENT", "POS", "ATM", "FEE", "CHECK", "WITHDRAWAL" ->
+                    TransactionType.EXPENSE;
+            case "OTHER", "XFER" -> signedAmount < 0 ? TransactionType.EXPENSE : TransactionType.INCOME;
+            default -> throw new StatementParseException(line, "Unknown transaction type: " + typeText);
+        };
+    }
+
+    static String blankToDefault(String value, String fallback) {
+        return value == null || value.isBlank() ? fallback : value.trim();
+    }
+}
@@ -0,0 +1,127 @@
+package com.expensetracker.importer;
+
+import com.expensetracker.model.Transaction;
+import com.expensetracker.service.TransactionService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams a bank statement into the database.
+ *
+ * Rows are parsed one at a time, validated with the service rules and
+ * written in fixed-size chunks, each chunk in its own batched transaction.
+ * Only one chunk is held in memory, so file size does not matter.
+ * Rejected rows go to {@code <file>.errors.log} next to the input.
+ */
+public class TransactionImporter {
+
+    private static final int DEFAULT_CHUNK_SIZE =
+            Integer.getInteger("expensetracker.import.chunkSize", 1000);
+
+    private final TransactionService transactionService;
+    private final int chunkSize;
+
+    public TransactionImporter(TransactionService transactionService) {
+        this(transactionService, DEFAULT_CHUNK_SIZE);
+    }
+
+    public TransactionImporter(TransactionService transactionService, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be greater than zero");
+        }
+        this.transactionService = transactionService;
+        this.chunkSize = chunkSize;
+    }
+
+    public ImportResult importFile(Path file) throws IOException, SQLException {
+        return importFile(file, ImportFormat.fromFileName(file.getFileName().toString()), null);
+    }
+
+    // ================= IMPORT =================
+    public ImportResult importFile(Path file, ImportFormat format, ImportProgressListener listener)
+            throws IOException, SQLException {
+
+        long start = System.nanoTime();
+        long read = 0;
+        long imported = 0;
+        long rejected = 0;
+
+        Path errorLogPath = file.resolveSibling(file.getFileName() + ".errors.log");
+        BufferedWriter errorLog = null;
+
+        List<Transaction> chunk = new ArrayList<>(chunkSize);
+
+        try (StatementReader reader = format.open(file)) {
+
+            while (true) {
+                Transaction t;
+                try {
+                    t = reader.next();
+                    if (t == null) break;
+                    read++;
+                    transactionService.validateTransaction(t);
+                } catch (StatementParseException e) {
+                    read++;
+                    rejected++;
+                    errorLog = logError(errorLog, errorLogPath, e.getLineNumber(), e.getMessage());
+                    continue;
+                } catch (IllegalArgumentException e) {
+                    rejected++;
+                    errorLog = logError(errorLog, errorLogPath, reader.getLineNumber(), e.getMessage());
+                    continue;
+                }
+
+                chunk.add(t);
+                if (chunk.size() == chunkSize) {
+                    imported += flush(chunk);
+                    report(listener, read, imported, rejected, start);
+                }
+            }
+
+            imported += flush(chunk);
+            report(listener, read, imported, rejected, start);
+
+        } finally {
+            if (errorLog != null) {
+                errorLog.close();
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return new ImportResult(read, imported, rejected, elapsedMillis,
+                rejected > 0 ? errorLogPath : null);
+    }
+
+    // ================= HELPERS =================
+    private int flush(List<Transaction> chunk) throws SQLException {
+        if (chunk.isEmpty()) return 0;
+        int size = chunk.size();
+        transactionService.addTransactions(chunk);
+        chunk.clear();
+        return size;
+    }
+
+    private BufferedWriter logError(BufferedWriter writer, Path path, long line, String message)
+            throws IOException {
+        if (writer == null) {
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+        }
+        writer.write("line " + line + ": " + message);
+        writer.newLine();
+        return writer;
+    }
+
+    private void report(ImportProgressListener listener, long read, long imported,
+                        long rejected, long startNanos) {
+        if (listener == null) return;
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        listener.onProgress(read, imported, rejected, seconds > 0 ? read / seconds : read);
+    }
+}
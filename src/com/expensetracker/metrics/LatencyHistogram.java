@@ -0,0 +1,112 @@
+package com.expensetracker.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram in the style of HdrHistogram: log-linear
+ * buckets with 64 linear steps per power of two, so any recorded value is
+ * reported within about 1.6%. Covers 0 ns to about 18 minutes in a fixed
+ * 18 KB array; larger values count in the top bucket.
+ *
+ * Recording is a few atomic increments and is safe from any thread.
+ * Percentiles are read without stopping writers, so a snapshot taken under
+ * load may be off by the samples recorded while it was read.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;   // 64
+    private static final int LINEAR_LIMIT = SUB_BUCKETS << 1;      // values below are exact
+    private static final int MAX_SHIFT = 34;                        // 2^40 ns
+    private static final int BUCKETS = (MAX_SHIFT + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    // false when metrics are switched off; recording is then a no-op
+    private final boolean enabled;
+
+    public LatencyHistogram() {
+        this(true);
+    }
+
+    LatencyHistogram(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void record(long nanos) {
+        if (!enabled) return;
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(indexOf(nanos));
+        count.increment();
+        totalNanos.add(nanos);
+        if (nanos > maxNanos.get()) maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /** Records the time since {@code startNanos}, a {@link System#nanoTime()} reading. */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public double getMeanNanos() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) totalNanos.sum() / n;
+    }
+
+    /**
+     * The smallest bucket value at or below which {@code percentile} percent
+     * of the samples fall, reported as the bucket's upper bound.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long n = count.sum();
+        if (n == 0) return 0;
+
+        long target = Math.max(1, (long) Math.ceil(n * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) return Math.min(upperBound(i), maxNanos.get());
+        }
+        return maxNanos.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        count.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+
+    // ================== BUCKETS ==================
+    // Values below 128 map to themselves; above that the top 7 significant
+    // bits pick one of 64 sub-buckets within the value's power of two
+    static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        if (shift > MAX_SHIFT) return BUCKETS - 1;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    static long upperBound(int index) {
+        if (index < LINEAR_LIMIT) return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long sub = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,223 @@
+package com.expensetracker.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide timers, counters and gauges.
+ *
+ * Names are dotted, layer first: {@code dao.filterTransactions},
+ * {@code db.connection.acquire}, {@code sql <statement>},
+ * {@code ui.edt.callback}. Everything is visible over JMX as
+ * {@code com.expensetracker:type=Metrics} and can be written to a text
+ * file; with {@code -Dexpensetracker.metrics.dumpFile=<path>} that happens
+ * at exit. {@code -Dexpensetracker.metrics=false} turns recording off.
+ */
+public final class Metrics {
+
+    private static final Logger LOG = Logger.getLogger(Metrics.class.getName());
+
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("expensetracker.metrics", "true"));
+
+    private static final Map<String, LatencyHistogram> TIMERS = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> GAUGES = new ConcurrentHashMap<>();
+
+    static {
+        if (ENABLED) {
+            registerMBean();
+            String dumpFile = System.getProperty("expensetracker.metrics.dumpFile");
+            if (dumpFile != null) {
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        dumpToFile(Paths.get(dumpFile));
+                    } catch (IOException e) {
+                        LOG.warning("Could not write metrics to " + dumpFile + ": " + e.getMessage());
+                    }
+                }, "metrics-dump"));
+            }
+        }
+    }
+
+    private Metrics() {
+        // static registry
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    // ================== REGISTRY ==================
+    /** The named timer, created on first use. Keep a reference on hot paths. */
+    public static LatencyHistogram timer(String name) {
+        return TIMERS.computeIfAbsent(name, n -> new LatencyHistogram(ENABLED));
+    }
+
+    public static LongAdder counter(String name) {
+        return COUNTERS.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    /** A value read when metrics are reported, e.g. a pool size. Replaces any gauge of that name. */
+    public static void gauge(String name, LongSupplier value) {
+        GAUGES.put(name, value);
+    }
+
+    // ================== INSTRUMENTATION ==================
+    /**
+     * Wraps {@code target} so each call through {@code type} is timed as
+     * {@code <prefix>.<method>} and failures counted as
+     * {@code <prefix>.<method>.errors}. Callbacks passed in (row handlers)
+     * run inside the call and are included in its time.
+     */
+    public static <T> T instrument(Class<T> type, T target, String prefix) {
+        if (!ENABLED) return target;
+
+        Map<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> method.invoke(target, args);
+                };
+            }
+
+            LatencyHistogram timer = timers.computeIfAbsent(method.getName(),
+                    name -> timer(prefix + "." + name));
+            long start = System.nanoTime();
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                counter(prefix + "." + method.getName() + ".errors").increment();
+                throw e.getCause();
+            } finally {
+                timer.recordSince(start);
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    // ================== REPORTING ==================
+    public static List<TimerSnapshot> timerSnapshots() {
+        List<TimerSnapshot> snapshots = new ArrayList<>();
+        new TreeMap<>(TIMERS).forEach((name, h) -> snapshots.add(TimerSnapshot.of(name, h)));
+        return snapshots;
+    }
+
+    public static Map<String, Long> counterValues() {
+        Map<String, Long> values = new TreeMap<>();
+        COUNTERS.forEach((name, c) -> values.put(name, c.sum()));
+        return values;
+    }
+
+    public static Map<String, Long> gaugeValues() {
+        Map<String, Long> values = new TreeMap<>();
+        GAUGES.forEach((name, g) -> {
+            try {
+                values.put(name, g.getAsLong());
+            } catch (RuntimeException e) {
+                // a gauge whose source is gone; leave it out
+            }
+        });
+        return values;
+    }
+
+    public static String dump() {
+        StringBuilder sb = new StringBuilder(4096);
+        sb.append("# expense-tracker metrics, ").append(LocalDateTime.now()).append('\n');
+
+        sb.append(String.format("%n%-60s %10s %10s %10s %10s %10s %10s%n",
+                "timer (us)", "count", "mean", "p50", "p90", "p99", "max"));
+        for (TimerSnapshot t : timerSnapshots()) {
+            sb.append(String.format("%-60s %10d %10.1f %10d %10d %10d %10d%n",
+                    abbreviate(t.getName()), t.getCount(), t.getMeanMicros(),
+                    t.getP50Micros(), t.getP90Micros(), t.getP99Micros(), t.getMaxMicros()));
+        }
+
+        sb.append(String.format("%n%-60s %10s%n", "counter", "value"));
+        counterValues().forEach((name, v) -> sb.append(String.format("%-60s %10d%n", abbreviate(name), v)));
+
+        sb.append(String.format("%n%-60s %10s%n", "gauge", "value"));
+        gaugeValues().forEach((name, v) -> sb.append(String.format("%-60s %10d%n", abbreviate(name), v)));
+        return sb.toString();
+    }
+
+    public static Path dumpToFile(Path file) throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        Files.writeString(file, dump(), StandardCharsets.UTF_8);
+        return file.toAbsolutePath();
+    }
+
+    /** Clears timers and counters; gauges are live values and stay. */
+    public static void reset() {
+        TIMERS.values().forEach(LatencyHistogram::reset);
+        COUNTERS.values().forEach(LongAdder::reset);
+    }
+
+    // SQL names can be long; the table stays readable and the start is what identifies them
+    private static String abbreviate(String name) {
+        return name.length() <= 60 ? name : name.substring(0, 57) + "...";
+    }
+
+    // ================== JMX ==================
+    private static void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(),
+                    new ObjectName("com.expensetracker:type=Metrics"));
+        } catch (JMException | RuntimeException e) {
+            LOG.fine("Metrics MBean not registered: " + e.getMessage());
+        }
+    }
+
+    private static final class Bean implements MetricsMXBean {
+
+        @Override
+        public List<TimerSnapshot> getTimers() {
+            return timerSnapshots();
+        }
+
+        @Override
+        public Map<String, Long> getCounters() {
+            return counterValues();
+        }
+
+        @Override
+        public Map<String, Long> getGauges() {
+            return gaugeValues();
+        }
+
+        @Override
+        public String dump() {
+            return Metrics.dump();
+        }
+
+        @Override
+        public String dumpToFile(String path) throws IOException {
+            return Metrics.dumpToFile(Paths.get(path)).toString();
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+}
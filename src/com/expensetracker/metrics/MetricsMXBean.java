@@ -0,0 +1,26 @@
+package com.expensetracker.metrics;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JMX view of {@link Metrics}, registered as
+ * {@code com.expensetracker:type=Metrics}.
+ */
+public interface MetricsMXBean {
+
+    List<TimerSnapshot> getTimers();
+
+    Map<String, Long> getCounters();
+
+    Map<String, Long> getGauges();
+
+    /** Everything as a text table, as written by {@link #dumpToFile}. */
+    String dump();
+
+    /** Writes {@link #dump()} to {@code path}; returns the absolute path written. */
+    String dumpToFile(String path) throws IOException;
+
+    void reset();
+}
@@ -0,0 +1,74 @@
+package com.expensetracker.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Point-in-time summary of one {@link LatencyHistogram}, in microseconds.
+ * Exposed over JMX as composite data.
+ */
+public final class TimerSnapshot {
+
+    private final String name;
+    private final long count;
+    private final double meanMicros;
+    private final long p50Micros;
+    private final long p90Micros;
+    private final long p99Micros;
+    private final long maxMicros;
+
+    @ConstructorProperties({"name", "count", "meanMicros", "p50Micros", "p90Micros", "p99Micros", "maxMicros"})
+    public TimerSnapshot(String name, long count, double meanMicros,
+                         long p50Micros, long p90Micros, long p99Micros, long maxMicros) {
+        this.name = name;
+        this.count = count;
+        this.meanMicros = meanMicros;
+        this.p50Micros = p50Micros;
+        this.p90Micros = p90Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    static TimerSnapshot of(String name, LatencyHistogram histogram) {
+        return new TimerSnapshot(name,
+                histogram.getCount(),
+                histogram.getMeanNanos() / 1000.0,
+                histogram.getValueAtPercentile(50) / 1000,
+                histogram.getValueAtPercentile(90) / 1000,
+                histogram.getValueAtPercentile(99) / 1000,
+                histogram.getMaxNanos() / 1000);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanMicros() {
+        return meanMicros;
+    }
+
+    public long getP50Micros() {
+        return p50Micros;
+    }
+
+    public long getP90Micros() {
+        return p90Micros;
+    }
+
+    public long getP99Micros() {
+        return p99Micros;
+    }
+
+    public long getMaxMicros() {
+        return maxMicros;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: n=%d mean=%.1fus p50=%dus p90=%dus p99=%dus max=%dus",
+                name, count, meanMicros, p50Micros, p90Micros, p99Micros, maxMicros);
+    }
+}
@@ -0,0 +1,51 @@
+package com.expensetracker.model;
+
+import java.util.Locale;
+
+/**
+ * One row of the {@code categories} table. Instances are interned by
+ * {@code CategoryRegistry}, so there is one object (and one name string)
+ * per category for the whole process.
+ */
+public final class Category {
+
+    private final int id;
+    private final String name;
+
+    public Category(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    /**
+     * The form in which names are compared: trimmed and case-folded, as the
+     * case-insensitive collation of {@code categories.name} compares them
+     * (trailing spaces included). "Food" and "food " are the same category.
+     */
+    public static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Category other && other.id == id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,40 @@
+package com.expensetracker.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Bucket size of a trend report. Each bucket is identified by its first
+ * day; weeks start on Monday.
+ */
+public enum Granularity {
+    DAY, WEEK, MONTH, QUARTER, YEAR;
+
+    /** First day of the bucket containing {@code date}. */
+    public LocalDate bucketStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+            case QUARTER -> LocalDate.of(date.getYear(), (date.getMonthValue() - 1) / 3 * 3 + 1, 1);
+            case YEAR -> date.withDayOfYear(1);
+        };
+    }
+
+    /** First day of the bucket after the one starting at {@code bucketStart}. */
+    public LocalDate next(LocalDate bucketStart) {
+        return switch (this) {
+            case DAY -> bucketStart.plusDays(1);
+            case WEEK -> bucketStart.plusWeeks(1);
+            case MONTH -> bucketStart.plusMonths(1);
+            case QUARTER -> bucketStart.plusMonths(3);
+            case YEAR -> bucketStart.plusYears(1);
+        };
+    }
+
+    /** True when buckets are whole months, so monthly totals can build them. */
+    public boolean isMonthAligned() {
+        return this == MONTH || this == QUARTER || this == YEAR;
+    }
+}
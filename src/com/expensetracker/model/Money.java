@@ -0,0 +1,100 @@
+package com.expensetracker.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Amounts are held as {@code long} minor units (paise, cents) so sums are
+ * exact and need no allocation. This class converts to and from text.
+ *
+ * The scale (digits after the decimal point) comes from
+ * {@code -Dexpensetracker.currency.scale} (default 2) and must match the
+ * scale the stored amounts were written with.
+ */
+public final class Money {
+
+    public static final int SCALE = Integer.getInteger("expensetracker.currency.scale", 2);
+
+    public static final String SYMBOL = System.getProperty("expensetracker.currency.symbol", "₹");
+
+    // Minor units per major unit, e.g. 100 paise per rupee
+    public static final long FACTOR = pow10(SCALE);
+
+    private Money() {
+        // utility class
+    }
+
+    // ================== PARSE ==================
+    /**
+     * Parses a decimal amount such as {@code "1234.5"} into minor units.
+     * Rejects text with more fraction digits than {@link #SCALE}.
+     */
+    public static long parse(String text) {
+        if (text == null || text.isBlank()) {
+            throw new NumberFormatException("Amount is missing");
+        }
+
+        BigDecimal value;
+        try {
+            value = new BigDecimal(text.trim());
+        } catch (NumberFormatException e) {
+            throw new NumberFormatException("Invalid amount: " + text);
+        }
+
+        try {
+            return value.setScale(SCALE, RoundingMode.UNNECESSARY)
+                    .unscaledValue()
+                    .longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount allows at most " + SCALE + " decimal places: " + text);
+        }
+    }
+
+    public static long fromMajor(double major) {
+        return Math.round(major * FACTOR);
+    }
+
+    // ================== FORMAT ==================
+    public static double toMajor(long minor) {
+        return (double) minor / FACTOR;
+    }
+
+    /** Plain decimal text without symbol, e.g. {@code "-1234.50"}; round-trips through {@link #parse}. */
+    public static String toPlainString(long minor) {
+        StringBuilder sb = new StringBuilder(24);
+        if (minor < 0) sb.append('-');
+        appendDigits(sb, minor);
+        return sb.toString();
+    }
+
+    /** Display text with the currency symbol, e.g. {@code "-₹1234.50"}. */
+    public static String format(long minor) {
+        StringBuilder sb = new StringBuilder(24);
+        if (minor < 0) sb.append('-');
+        sb.append(SYMBOL);
+        appendDigits(sb, minor);
+        return sb.toString();
+    }
+
+    private static void appendDigits(StringBuilder sb, long minor) {
+        long units = Math.abs(minor / FACTOR);
+        long fraction = Math.abs(minor % FACTOR);
+
+        sb.append(units);
+        if (SCALE > 0) {
+            sb.append('.');
+            String digits = Long.toString(fraction);
+            for (int i = digits.length(); i < SCALE; i++) sb.append('0');
+            sb.append(digits);
+        }
+    }
+
+    private static long pow10(int scale) {
+        if (scale < 0 || scale > 6) {
+            throw new IllegalArgumentException("Currency scale must be between 0 and 6: " + scale);
+        }
+        long factor = 1;
+        for (int i = 0; i < scale; i++) factor *= 10;
+        return factor;
+    }
+}
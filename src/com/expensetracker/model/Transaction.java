@@ -7,14 +7,16 @@ import java.time.LocalDate;
 public class Transaction {
 
     private int id;
-    private double amount;
+    private long amount; // minor units, see Money
     private LocalDate date;
     private String category;
     private TransactionType type;
     private String notes;
+    // Idempotency key of a journaled add, stored with the row; null otherwise
+    private String writeKey;
 
     // Constructor for INSERT (no ID yet)
-    public Transaction(double amount, LocalDate date, String category,
+    public Transaction(long amount, LocalDate date, String category,
                        TransactionType type, String notes) {
         this.amount = amount;
         this.date = date;
@@ -24,7 +26,7 @@ public class Transaction {
     }
 
     // Constructor for SELECT (with ID)
-    public Transaction(int id, double amount, LocalDate date, String category,
+    public Transaction(int id, long amount, LocalDate date, String category,
                        TransactionType type, String notes) {
         this.id = id;
         this.amount = amount;
@@ -43,11 +45,11 @@ public class Transaction {
         this.id = id;
     }
 
-    public double getAmount() {
+    public long getAmount() {
         return amount;
     }
 
-    public void setAmount(double amount) {
+    public void setAmount(long amount) {
         this.amount = amount;
     }
 
@@ -82,4 +84,12 @@ public class Transaction {
     public void setNotes(String notes) {
         this.notes = notes;
     }
+
+    public String getWriteKey() {
+        return writeKey;
+    }
+
+    public void setWriteKey(String writeKey) {
+        this.writeKey = writeKey;
+    }
 }
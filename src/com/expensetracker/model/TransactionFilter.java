@@ -0,0 +1,213 @@
+package com.expensetracker.model;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Criteria for a transaction query. Every criterion is optional; an unset
+ * one ({@code null}, empty set, limit 0) leaves that dimension unbounded.
+ *
+ * Instances are immutable: each {@code with...} method returns a copy, so a
+ * filter can be shared with background loads and used as a cache key.
+ * Amounts are in minor units (see {@link Money}) and ranges are inclusive.
+ */
+public final class TransactionFilter {
+
+    /** Result order; ties are broken by id in the same direction. */
+    public enum Sort {
+        DATE_DESC, DATE_ASC, AMOUNT_DESC, AMOUNT_ASC
+    }
+
+    private static final TransactionFilter ALL = new TransactionFilter(
+            null, null, Set.of(), null, null, null, null, Sort.DATE_DESC, 0);
+
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final Set<String> categories;
+    private final Set<String> categoryKeys; // see Category.key
+    private final TransactionType type;
+    private final Long minAmount;
+    private final Long maxAmount;
+    private final String notesText;
+    private final Sort sort;
+    private final int limit;
+
+    private TransactionFilter(LocalDate startDate, LocalDate endDate, Set<String> categories,
+                              TransactionType type, Long minAmount, Long maxAmount,
+                              String notesText, Sort sort, int limit) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.categories = categories;
+        this.categoryKeys = keys(categories);
+        this.type = type;
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+        this.notesText = notesText;
+        this.sort = sort;
+        this.limit = limit;
+    }
+
+    /** Matches every transaction, newest first, without a limit. */
+    public static TransactionFilter all() {
+        return ALL;
+    }
+
+    // ================== COPIES ==================
+    public TransactionFilter withDateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date cannot be after end date");
+        }
+        return new TransactionFilter(startDate, endDate, categories, type,
+                minAmount, maxAmount, notesText, sort, limit);
+    }
+
+    /** Rows in any of the given categories; blank names are ignored and case does not matter. */
+    public TransactionFilter withCategories(Collection<String> names) {
+        Set<String> set = new LinkedHashSet<>();
+        if (names != null) {
+            Set<String> seen = new HashSet<>();
+            for (String name : names) {
+                if (name != null && !name.isBlank() && seen.add(Category.key(name))) set.add(name.trim());
+            }
+        }
+        return new TransactionFilter(startDate, endDate, Collections.unmodifiableSet(set), type,
+                minAmount, maxAmount, notesText, sort, limit);
+    }
+
+    public TransactionFilter withCategory(String name) {
+        return withCategories(name == null ? Set.of() : Set.of(name));
+    }
+
+    public TransactionFilter withType(TransactionType type) {
+        return new TransactionFilter(startDate, endDate, categories, type,
+                minAmount, maxAmount, notesText, sort, limit);
+    }
+
+    public TransactionFilter withAmountRange(Long minAmount, Long maxAmount) {
+        if (minAmount != null && maxAmount != null && minAmount > maxAmount) {
+            throw new IllegalArgumentException("Minimum amount cannot be greater than maximum amount");
+        }
+        return new TransactionFilter(startDate, endDate, categories, type,
+                minAmount, maxAmount, notesText, sort, limit);
+    }
+
+    /** Rows whose notes contain {@code text}; case is ignored as the database collation does. */
+    public TransactionFilter withNotesContaining(String text) {
+        String notes = text == null || text.isBlank() ? null : text.trim();
+        return new TransactionFilter(startDate, endDate, categories, type,
+                minAmount, maxAmount, notes, sort, limit);
+    }
+
+    public TransactionFilter withSort(Sort sort) {
+        return new TransactionFilter(startDate, endDate, categories, type,
+                minAmount, maxAmount, notesText, Objects.requireNonNull(sort, "sort"), limit);
+    }
+
+    /** At most {@code limit} rows in {@link #getSort()} order; 0 for no limit. */
+    public TransactionFilter withLimit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        return new TransactionFilter(startDate, endDate, categories, type,
+                minAmount, maxAmount, notesText, sort, limit);
+    }
+
+    // ================== GETTERS ==================
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public Set<String> getCategories() {
+        return categories;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public Long getMinAmount() {
+        return minAmount;
+    }
+
+    public Long getMaxAmount() {
+        return maxAmount;
+    }
+
+    public String getNotesText() {
+        return notesText;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    // ================== MATCHING ==================
+    /**
+     * False only when {@code row} is certainly outside this filter. Notes
+     * are compared by the database's collation, so they are not checked
+     * here, and the limit is ignored; callers use this to decide what a
+     * change to {@code row} may affect.
+     */
+    public boolean mayMatch(Transaction row) {
+        LocalDate date = row.getDate();
+        long amount = row.getAmount();
+        return (startDate == null || !date.isBefore(startDate))
+                && (endDate == null || !date.isAfter(endDate))
+                && (categories.isEmpty() || categoryKeys.contains(Category.key(row.getCategory())))
+                && (type == null || type == row.getType())
+                && (minAmount == null || amount >= minAmount)
+                && (maxAmount == null || amount <= maxAmount);
+    }
+
+    private static Set<String> keys(Set<String> names) {
+        if (names.isEmpty()) return Set.of();
+        Set<String> keys = new HashSet<>();
+        for (String name : names) keys.add(Category.key(name));
+        return keys;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TransactionFilter other)) return false;
+        return limit == other.limit
+                && sort == other.sort
+                && type == other.type
+                && Objects.equals(startDate, other.startDate)
+                && Objects.equals(endDate, other.endDate)
+                && categories.equals(other.categories)
+                && Objects.equals(minAmount, other.minAmount)
+                && Objects.equals(maxAmount, other.maxAmount)
+                && Objects.equals(notesText, other.notesText);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(startDate, endDate, categories, type, minAmount, maxAmount, notesText, sort, limit);
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionFilter{start=" + startDate
+                + ", end=" + endDate
+                + ", categories=" + categories
+                + ", type=" + type
+                + ", amount=" + minAmount + ".." + maxAmount
+                + ", notes=" + notesText
+                + ", sort=" + sort
+                + ", limit=" + limit + "}";
+    }
+}
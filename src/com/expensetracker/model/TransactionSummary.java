@@ -0,0 +1,66 @@
+package com.expensetracker.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Income/expense totals with a per-category breakdown for one date range.
+ * All amounts are in minor units (see {@link Money}).
+ */
+public final class TransactionSummary {
+
+    private final Map<String, Long> incomeByCategory;
+    private final Map<String, Long> expenseByCategory;
+    private final long totalIncome;
+    private final long totalExpense;
+    private final long transactionCount;
+
+    public TransactionSummary(Map<String, Long> incomeByCategory,
+                              Map<String, Long> expenseByCategory,
+                              long transactionCount) {
+        this.incomeByCategory = Collections.unmodifiableMap(new LinkedHashMap<>(incomeByCategory));
+        this.expenseByCategory = Collections.unmodifiableMap(new LinkedHashMap<>(expenseByCategory));
+        this.totalIncome = sum(incomeByCategory);
+        this.totalExpense = sum(expenseByCategory);
+        this.transactionCount = transactionCount;
+    }
+
+    public static TransactionSummary empty() {
+        return new TransactionSummary(Map.of(), Map.of(), 0);
+    }
+
+    public long getTotalIncome() {
+        return totalIncome;
+    }
+
+    public long getTotalExpense() {
+        return totalExpense;
+    }
+
+    public long getBalance() {
+        return totalIncome - totalExpense;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public Map<String, Long> getIncomeByCategory() {
+        return incomeByCategory;
+    }
+
+    public Map<String, Long> getExpenseByCategory() {
+        return expenseByCategory;
+    }
+
+    public Map<String, Long> getByCategory(TransactionType type) {
+        return type == TransactionType.INCOME ? incomeByCategory : expenseByCategory;
+    }
+
+    private static long sum(Map<String, Long> totals) {
+        long total = 0;
+        for (long v : totals.values()) total += v;
+        return total;
+    }
+}
@@ -0,0 +1,58 @@
+package com.expensetracker.model;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Totals per category for consecutive periods, e.g. monthly spend per
+ * category. Every period in the range is present, including empty ones.
+ * Amounts are in minor units (see {@link Money}).
+ */
+public final class TrendReport {
+
+    private final Granularity granularity;
+    private final List<LocalDate> periods;
+    private final Map<String, long[]> totalsByCategory;
+    private final long[] totals;
+
+    /**
+     * @param periods          first day of each period, ascending
+     * @param totalsByCategory one value per period for each category, largest category first
+     */
+    public TrendReport(Granularity granularity, List<LocalDate> periods,
+                       Map<String, long[]> totalsByCategory) {
+        this.granularity = granularity;
+        this.periods = Collections.unmodifiableList(periods);
+        this.totalsByCategory = Collections.unmodifiableMap(totalsByCategory);
+
+        this.totals = new long[periods.size()];
+        for (long[] series : totalsByCategory.values()) {
+            for (int i = 0; i < totals.length; i++) totals[i] += series[i];
+        }
+    }
+
+    public Granularity getGranularity() {
+        return granularity;
+    }
+
+    public List<LocalDate> getPeriods() {
+        return periods;
+    }
+
+    /** Per-period totals of each category; the arrays must not be modified. */
+    public Map<String, long[]> getTotalsByCategory() {
+        return totalsByCategory;
+    }
+
+    public long getTotal(int period) {
+        return totals[period];
+    }
+
+    public long getMaxTotal() {
+        long max = 0;
+        for (long t : totals) max = Math.max(max, t);
+        return max;
+    }
+}
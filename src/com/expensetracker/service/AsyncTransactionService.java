@@ -0,0 +1,140 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Granularity;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionFilter;
+import com.expensetracker.model.TransactionSummary;
+import com.expensetracker.model.TransactionType;
+import com.expensetracker.model.TrendReport;
+
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs {@link TransactionService} calls on a background executor so that
+ * callers (the Swing panels) never block on JDBC.
+ *
+ * Uses one virtual thread per task when the JVM supports it, otherwise a
+ * small pool of daemon threads sized to the connection pool.
+ */
+public class AsyncTransactionService {
+
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    private final TransactionService transactionService;
+
+    public AsyncTransactionService(TransactionService transactionService) {
+        this.transactionService = transactionService;
+    }
+
+    public TransactionService getDelegate() {
+        return transactionService;
+    }
+
+    // ================== WRITES ==================
+    public CompletableFuture<Void> addTransaction(Transaction transaction) {
+        return run(() -> transactionService.addTransaction(transaction));
+    }
+
+    public CompletableFuture<Void> updateTransaction(Transaction transaction) {
+        return run(() -> transactionService.updateTransaction(transaction));
+    }
+
+    public CompletableFuture<Void> deleteTransaction(int id) {
+        return run(() -> transactionService.deleteTransaction(id));
+    }
+
+    // ================== READS ==================
+    public CompletableFuture<List<Transaction>> getAllTransactions() {
+        return supply(transactionService::getAllTransactions);
+    }
+
+    public CompletableFuture<Void> forEachTransaction(Consumer<Transaction> action) {
+        return run(() -> transactionService.forEachTransaction(action));
+    }
+
+    public CompletableFuture<List<Transaction>> filterTransactions(TransactionFilter filter) {
+        return supply(() -> transactionService.filterTransactions(filter));
+    }
+
+    public CompletableFuture<TransactionSummary> getSummary() {
+        return supply(transactionService::getSummary);
+    }
+
+    public CompletableFuture<TrendReport> getTrend(
+            Granularity granularity,
+            LocalDate startDate,
+            LocalDate endDate,
+            TransactionType type) {
+        return supply(() -> transactionService.getTrend(granularity, startDate, endDate, type));
+    }
+
+    public CompletableFuture<SearchResults> searchTransactions(String query, int offset, int limit) {
+        return supply(() -> transactionService.searchTransactions(query, offset, limit));
+    }
+
+    public CompletableFuture<List<Category>> getCategories() {
+        return supply(transactionService::getCategories);
+    }
+
+    // ================== GENERIC ==================
+    public <T> CompletableFuture<T> supply(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        EXECUTOR.execute(() -> {
+            if (future.isDone()) return; // cancelled before it started
+            try {
+                future.complete(task.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e instanceof CompletionException ? e.getCause() : e);
+            }
+        });
+        return future;
+    }
+
+    public CompletableFuture<Void> run(CheckedRunnable task) {
+        return supply(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    @FunctionalInterface
+    public interface CheckedRunnable {
+        void run() throws Exception;
+    }
+
+    // ================== EXECUTOR ==================
+    private static ExecutorService createExecutor() {
+        try {
+            // Java 21+: Executors.newVirtualThreadPerTaskExecutor()
+            Method factory = java.util.concurrent.Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            int threads = Integer.getInteger("expensetracker.pool.maxSize", 8);
+            AtomicInteger counter = new AtomicInteger();
+
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                    threads, threads, 30, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    r -> {
+                        Thread t = new Thread(r, "db-worker-" + counter.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.expensetracker.service;
+
+/**
+ * Point-in-time snapshot of {@link QueryCache} counters.
+ */
+public final class CacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long invalidations;
+    private final int entries;
+    private final long weight;
+    private final long maxWeight;
+
+    public CacheStats(long hits, long misses, long evictions, long invalidations,
+                      int entries, long weight, long maxWeight) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.invalidations = invalidations;
+        this.entries = entries;
+        this.weight = weight;
+        this.maxWeight = maxWeight;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public int getEntries() {
+        return entries;
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{hits=" + hits
+                + ", misses=" + misses
+                + ", hitRate=" + String.format("%.1f%%", getHitRate() * 100)
+                + ", evictions=" + evictions
+                + ", invalidations=" + invalidations
+                + ", entries=" + entries
+                + ", weight=" + weight + "/" + maxWeight + "}";
+    }
+}
@@ -0,0 +1,33 @@
+package com.expensetracker.service;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+
+/**
+ * Tells apart database errors worth retrying from those that are not. The
+ * write-behind queue and the journaled writer both retry outages and treat
+ * everything else as the database rejecting the write.
+ */
+final class DatabaseErrors {
+
+    private DatabaseErrors() {
+        // utility class
+    }
+
+    /**
+     * A lost or refused connection, a timeout or a lock conflict: the same
+     * write may succeed later. Bad data, constraint violations and plain
+     * {@link SQLException}s from drivers that do not subclass are not.
+     */
+    static boolean isOutage(SQLException e) {
+        if (e instanceof SQLTransientException
+                || e instanceof SQLRecoverableException
+                || e instanceof SQLNonTransientConnectionException) {
+            return true;
+        }
+        String state = e.getSQLState();
+        return state != null && state.startsWith("08");
+    }
+}
@@ -0,0 +1,297 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.Transaction;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+
+/**
+ * Journals every write of a {@link TransactionService} before it goes to
+ * the database, so writes keep working while the database is unreachable.
+ *
+ * Normally a write is appended to the journal, applied, and marked
+ * committed. If the database cannot be reached, the write stays in the
+ * journal, the writer goes offline and a background thread replays the
+ * journal, oldest first, until the database is back. While offline, new
+ * writes are only journaled so they cannot overtake the backlog. Entries
+ * left over from a crash are replayed when the writer is attached.
+ *
+ * Writes are serialized: journal order is always the order in which the
+ * database sees them. A write may reach the database without being marked
+ * committed: after a crash between the two, or when the connection drops
+ * while it commits. Replay is safe either way. Each add carries a write
+ * key stored with its row, and rows whose key is already stored are not
+ * inserted again. Updates and deletes come out the same when repeated. The
+ * in-memory views of a write that failed that way are reloaded once the
+ * replay is done.
+ */
+public class JournaledWriter implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(JournaledWriter.class.getName());
+
+    private static final long MIN_RETRY_DELAY_MS = 500;
+    private static final long MAX_RETRY_DELAY_MS = 5_000;
+
+    private final TransactionJournal journal;
+    private final int replayBatch;
+    private final Object lock = new Object();
+
+    private TransactionService service;
+    private Thread replayer; // non-null while offline
+    // Ids of the write whose outage took the writer offline; it may have committed
+    private int[] inDoubt;
+    private volatile boolean closed;
+    private volatile BiConsumer<TransactionJournal.Entry, Exception> errorHandler =
+            (e, ex) -> LOG.warning("Dropped journaled " + e.getOp() + " #" + e.getSeq() + ": " + ex.getMessage());
+
+    @FunctionalInterface
+    interface Write<T> {
+        T run() throws SQLException;
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("expensetracker.journal");
+    }
+
+    /**
+     * Opens {@code mutations.journal} in {@code expensetracker.journal.dir}
+     * (default {@code ~/.expense-tracker}). {@code expensetracker.journal.fsync}
+     * forces each write to disk; {@code expensetracker.journal.replayBatch}
+     * (default 200) caps the rows applied per replay transaction.
+     */
+    public static JournaledWriter openConfigured() throws IOException {
+        Path file = Paths.get(System.getProperty("expensetracker.journal.dir",
+                System.getProperty("user.home") + "/.expense-tracker"), "mutations.journal");
+        TransactionJournal journal = TransactionJournal.open(file,
+                Boolean.getBoolean("expensetracker.journal.fsync"));
+
+        JournaledWriter writer = new JournaledWriter(journal,
+                Integer.getInteger("expensetracker.journal.replayBatch", 200));
+        Runtime.getRuntime().addShutdownHook(new Thread(writer::close, "journal-shutdown"));
+        return writer;
+    }
+
+    public JournaledWriter(TransactionJournal journal, int replayBatch) {
+        if (replayBatch <= 0) {
+            throw new IllegalArgumentException("Replay batch must be greater than zero");
+        }
+        this.journal = journal;
+        this.replayBatch = replayBatch;
+    }
+
+    // Called once by the owning service; recovered entries start replaying here
+    void attach(TransactionService service) {
+        synchronized (lock) {
+            this.service = service;
+            int recovered = journal.pendingCount();
+            if (recovered > 0) {
+                LOG.info("Replaying " + recovered + " journaled writes from an earlier session");
+                startReplay();
+            }
+        }
+    }
+
+    public void setErrorHandler(BiConsumer<TransactionJournal.Entry, Exception> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    /** True while writes are being kept in the journal because the database is unreachable. */
+    public boolean isOffline() {
+        synchronized (lock) {
+            return replayer != null;
+        }
+    }
+
+    /** Journaled writes not yet in the database. */
+    public int getPendingCount() {
+        return journal.pendingCount();
+    }
+
+    // ================== WRITES ==================
+    // Each returns what write returned, or ifQueued when the write was only journaled
+
+    <T> T add(Collection<Transaction> rows, T ifQueued, Write<T> write) throws SQLException {
+        synchronized (lock) {
+            long seq = 0;
+            try {
+                for (Transaction t : rows) seq = journal.appendAdd(t);
+            } catch (IOException e) {
+                throw journalFailure(e);
+            }
+            return applyOrQueue(seq, new int[0], ifQueued, write);
+        }
+    }
+
+    <T> T update(Collection<Transaction> rows, T ifQueued, Write<T> write) throws SQLException {
+        synchronized (lock) {
+            long seq = 0;
+            try {
+                for (Transaction t : rows) seq = journal.appendUpdate(t);
+            } catch (IOException e) {
+                throw journalFailure(e);
+            }
+            return applyOrQueue(seq, rows.stream().mapToInt(Transaction::getId).toArray(), ifQueued, write);
+        }
+    }
+
+    <T> T delete(int[] ids, T ifQueued, Write<T> write) throws SQLException {
+        synchronized (lock) {
+            long seq = 0;
+            try {
+                for (int id : ids) seq = journal.appendDelete(id);
+            } catch (IOException e) {
+                throw journalFailure(e);
+            }
+            return applyOrQueue(seq, ids, ifQueued, write);
+        }
+    }
+
+    private <T> T applyOrQueue(long seq, int[] ids, T ifQueued, Write<T> write) throws SQLException {
+        if (closed) {
+            throw new SQLException("Journal is closed");
+        }
+        if (replayer != null) return ifQueued;
+
+        try {
+            T result = write.run();
+            markCommitted(seq);
+            return result;
+        } catch (SQLException e) {
+            if (DatabaseErrors.isOutage(e)) {
+                LOG.warning("Database unavailable, keeping writes in the journal: " + e.getMessage());
+                inDoubt = ids;
+                startReplay();
+                return ifQueued;
+            }
+            markCommitted(seq);
+            throw e;
+        } catch (RuntimeException e) {
+            markCommitted(seq);
+            throw e;
+        }
+    }
+
+    // ================== REPLAY ==================
+    private void startReplay() {
+        replayer = new Thread(this::replay, "journal-replay");
+        replayer.setDaemon(true);
+        replayer.start();
+    }
+
+    // Applies runs of the same operation as one database transaction; a run
+    // the database rejects is retried one entry at a time so only the bad
+    // entries are dropped
+    private void replay() {
+        long delay = MIN_RETRY_DELAY_MS;
+        int limit = replayBatch;
+
+        while (!closed) {
+            synchronized (lock) {
+                List<TransactionJournal.Entry> pending = journal.pending();
+                if (pending.isEmpty()) {
+                    LOG.info("Journal replayed, writing to the database directly again");
+                    if (inDoubt != null) {
+                        service.writeWasInDoubt(inDoubt);
+                        inDoubt = null;
+                    }
+                    replayer = null;
+                    return;
+                }
+
+                List<TransactionJournal.Entry> run = leadingRun(pending, limit);
+                try {
+                    apply(run);
+                    markCommitted(run.get(run.size() - 1).getSeq());
+                    delay = MIN_RETRY_DELAY_MS;
+                    continue;
+                } catch (SQLException e) {
+                    if (!DatabaseErrors.isOutage(e)) {
+                        limit = reject(run, e);
+                        continue;
+                    }
+                } catch (RuntimeException e) {
+                    limit = reject(run, e);
+                    continue;
+                }
+            }
+
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            delay = Math.min(delay * 2, MAX_RETRY_DELAY_MS);
+        }
+    }
+
+    private int reject(List<TransactionJournal.Entry> run, Exception e) {
+        if (run.size() > 1) return 1;
+
+        errorHandler.accept(run.get(0), e);
+        markCommitted(run.get(0).getSeq());
+        return replayBatch;
+    }
+
+    private static List<TransactionJournal.Entry> leadingRun(List<TransactionJournal.Entry> pending, int limit) {
+        TransactionJournal.Op op = pending.get(0).getOp();
+        int end = 1;
+        while (end < pending.size() && end < limit && pending.get(end).getOp() == op) {
+            end++;
+        }
+        return pending.subList(0, end);
+    }
+
+    private void apply(List<TransactionJournal.Entry> run) throws SQLException {
+        switch (run.get(0).getOp()) {
+            case ADD, UPDATE -> {
+                List<Transaction> rows = new ArrayList<>(run.size());
+                for (TransactionJournal.Entry e : run) rows.add(e.getTransaction());
+                if (run.get(0).getOp() == TransactionJournal.Op.ADD) {
+                    service.replayAdds(rows);
+                } else {
+                    service.writeUpdates(rows);
+                }
+            }
+            case DELETE -> service.writeDeletes(run.stream().mapToInt(TransactionJournal.Entry::getId).toArray());
+        }
+    }
+
+    private void markCommitted(long seq) {
+        try {
+            journal.markCommitted(seq);
+        } catch (IOException e) {
+            // The write is in the database; it will be applied again on the next replay
+            LOG.warning("Could not mark journal entries committed: " + e.getMessage());
+        }
+    }
+
+    private static SQLException journalFailure(IOException e) {
+        return new SQLException("Could not write to the journal: " + e.getMessage(), e);
+    }
+
+    // ================== SHUTDOWN ==================
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+            int left = journal.pendingCount();
+            if (left > 0) {
+                LOG.warning(left + " journaled writes are not in the database yet; they will be replayed on the next start");
+            }
+            try {
+                journal.close();
+            } catch (IOException e) {
+                LOG.warning("Could not close the journal: " + e.getMessage());
+            }
+        }
+    }
+}
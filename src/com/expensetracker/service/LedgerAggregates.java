@@ -0,0 +1,247 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionSummary;
+import com.expensetracker.model.TransactionType;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Running ledger totals kept in memory.
+ *
+ * Totals are held overall, per day and per month, each split by type and
+ * category. Writes apply a delta (old values are subtracted on update and
+ * delete), so reading the all-time summary never touches the database.
+ * Sums are {@code long} minor units, so they stay exact however many
+ * deltas are applied.
+ */
+public class LedgerAggregates {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Bucket overall = new Bucket();
+    private final NavigableMap<LocalDate, Bucket> daily = new TreeMap<>();
+    private final NavigableMap<YearMonth, Bucket> monthly = new TreeMap<>();
+
+    private volatile boolean warm;
+
+    // All-time summary is rebuilt lazily after a write, then served as-is
+    private volatile TransactionSummary overallSummary;
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    // ================== DELTAS ==================
+    public void applyAdd(Transaction t) {
+        apply(t, 1);
+    }
+
+    public void applyDelete(Transaction old) {
+        apply(old, -1);
+    }
+
+    public void applyUpdate(Transaction old, Transaction updated) {
+        lock.writeLock().lock();
+        try {
+            applyLocked(old, -1);
+            applyLocked(updated, 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Transaction t, int sign) {
+        lock.writeLock().lock();
+        try {
+            applyLocked(t, sign);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applyLocked(Transaction t, int sign) {
+        overallSummary = null;
+        long amount = sign * t.getAmount();
+        LocalDate date = t.getDate();
+
+        overall.add(t.getType(), t.getCategory(), amount, sign);
+        daily.computeIfAbsent(date, d -> new Bucket())
+                .add(t.getType(), t.getCategory(), amount, sign);
+        monthly.computeIfAbsent(YearMonth.from(date), m -> new Bucket())
+                .add(t.getType(), t.getCategory(), amount, sign);
+
+        if (sign < 0) {
+            daily.computeIfPresent(date, (d, b) -> b.isEmpty() ? null : b);
+            monthly.computeIfPresent(YearMonth.from(date), (m, b) -> b.isEmpty() ? null : b);
+        }
+    }
+
+    /**
+     * Adds a pre-aggregated (day, type, category) group; used when warming
+     * from a GROUP BY query instead of individual rows.
+     */
+    void addGroup(LocalDate date, TransactionType type, String category, long total, long count) {
+        lock.writeLock().lock();
+        try {
+            overallSummary = null;
+            overall.add(type, category, total, count);
+            daily.computeIfAbsent(date, d -> new Bucket()).add(type, category, total, count);
+            monthly.computeIfAbsent(YearMonth.from(date), m -> new Bucket()).add(type, category, total, count);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ================== REBUILD ==================
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            overall = new Bucket();
+            overallSummary = null;
+            daily.clear();
+            monthly.clear();
+            warm = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void markWarm() {
+        warm = true;
+    }
+
+    // ================== READS ==================
+    public TransactionSummary getSummary() {
+        TransactionSummary cached = overallSummary;
+        if (cached != null) {
+            return cached;
+        }
+
+        lock.readLock().lock();
+        try {
+            cached = overall.toSummary();
+            overallSummary = cached;
+            return cached;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Summary over an inclusive date range; either bound may be {@code null}. */
+    public TransactionSummary getSummary(LocalDate startDate, LocalDate endDate, TransactionType type) {
+        lock.readLock().lock();
+        try {
+            if (startDate == null && endDate == null) {
+                return overall.toSummary(type);
+            }
+
+            NavigableMap<LocalDate, Bucket> range = daily;
+            if (startDate != null) range = range.tailMap(startDate, true);
+            if (endDate != null) range = range.headMap(endDate, true);
+
+            Bucket merged = new Bucket();
+            for (Bucket b : range.values()) {
+                merged.merge(b);
+            }
+            return merged.toSummary(type);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public TransactionSummary getMonthSummary(YearMonth month) {
+        lock.readLock().lock();
+        try {
+            Bucket b = monthly.get(month);
+            return b == null ? TransactionSummary.empty() : b.toSummary();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public TransactionSummary getDaySummary(LocalDate date) {
+        lock.readLock().lock();
+        try {
+            Bucket b = daily.get(date);
+            return b == null ? TransactionSummary.empty() : b.toSummary();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ================== BUCKET ==================
+    private static final class Bucket {
+
+        private final Map<TransactionType, Map<String, Cell>> byCategory =
+                new EnumMap<>(TransactionType.class);
+        private long count;
+
+        void add(TransactionType type, String category, long amount, long rows) {
+            Map<String, Cell> cells = byCategory.computeIfAbsent(type, k -> new HashMap<>());
+            Cell cell = cells.computeIfAbsent(category, k -> new Cell());
+            cell.sum += amount;
+            cell.count += rows;
+            count += rows;
+
+            if (cell.count <= 0) {
+                cells.remove(category);
+            }
+        }
+
+        void merge(Bucket other) {
+            for (Map.Entry<TransactionType, Map<String, Cell>> e : other.byCategory.entrySet()) {
+                for (Map.Entry<String, Cell> c : e.getValue().entrySet()) {
+                    add(e.getKey(), c.getKey(), c.getValue().sum, c.getValue().count);
+                }
+            }
+        }
+
+        boolean isEmpty() {
+            return count <= 0;
+        }
+
+        TransactionSummary toSummary() {
+            return toSummary(null);
+        }
+
+        TransactionSummary toSummary(TransactionType only) {
+            Map<String, Long> income = only == TransactionType.EXPENSE
+                    ? Map.of() : totals(TransactionType.INCOME);
+            Map<String, Long> expense = only == TransactionType.INCOME
+                    ? Map.of() : totals(TransactionType.EXPENSE);
+
+            long rows = 0;
+            for (Map.Entry<TransactionType, Map<String, Cell>> e : byCategory.entrySet()) {
+                if (only != null && e.getKey() != only) continue;
+                for (Cell c : e.getValue().values()) rows += c.count;
+            }
+            return new TransactionSummary(income, expense, rows);
+        }
+
+        private Map<String, Long> totals(TransactionType type) {
+            Map<String, Cell> cells = byCategory.get(type);
+            if (cells == null) return Map.of();
+
+            Map<String, Long> totals = new LinkedHashMap<>();
+            cells.entrySet().stream()
+                    .sorted((a, b) -> Long.compare(b.getValue().sum, a.getValue().sum))
+                    .forEach(e -> totals.put(e.getKey(), e.getValue().sum));
+            return totals;
+        }
+    }
+
+    private static final class Cell {
+        private long sum;
+        private long count;
+    }
+}
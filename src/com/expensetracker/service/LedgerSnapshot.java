@@ -0,0 +1,394 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dao.TransactionRepository;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionSummary;
+import com.expensetracker.model.TransactionType;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Read-only, column-oriented copy of the ledger for analytics.
+ *
+ * Each field is a primitive array indexed by row: epoch days, minor-unit
+ * amounts, type ordinals and dictionary-encoded category ids. That is about
+ * 21 bytes per row instead of a {@link Transaction} with its date and
+ * strings. Notes are not copied; {@link #getNotes(int)} loads them by id on
+ * first use.
+ *
+ * Rows are kept in ledger order (date DESC, id DESC), so a date range is
+ * found by binary search and only the rows inside it are scanned. Call
+ * {@link #parallel()} to split scans across the common fork-join pool.
+ */
+public final class LedgerSnapshot {
+
+    // Rows per fork-join leaf; below this a single loop is faster than splitting
+    private static final int PARALLEL_THRESHOLD =
+            Integer.getInteger("expensetracker.snapshot.parallelThreshold", 1 << 14);
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final int size;
+    private final int[] ids;
+    private final int[] epochDays;
+    private final long[] amounts;
+    private final byte[] types;
+    private final int[] categoryIds;
+
+    private final String[] categoryNames;
+    private final Map<String, Integer> categoryIndex;
+
+    private final TransactionRepository notesSource;
+    private final Map<Integer, String> notes;
+
+    private final boolean parallel;
+
+    private LedgerSnapshot(Columns columns, TransactionRepository notesSource) {
+        this.size = columns.size;
+        this.ids = Arrays.copyOf(columns.ids, size);
+        this.epochDays = Arrays.copyOf(columns.epochDays, size);
+        this.amounts = Arrays.copyOf(columns.amounts, size);
+        this.types = Arrays.copyOf(columns.types, size);
+        this.categoryIds = Arrays.copyOf(columns.categoryIds, size);
+        this.categoryNames = columns.categoryNames.toArray(new String[0]);
+        this.categoryIndex = columns.categoryIndex;
+        this.notesSource = notesSource;
+        this.notes = new HashMap<>();
+        this.parallel = false;
+    }
+
+    // Parallel view sharing the same columns
+    private LedgerSnapshot(LedgerSnapshot source) {
+        this.size = source.size;
+        this.ids = source.ids;
+        this.epochDays = source.epochDays;
+        this.amounts = source.amounts;
+        this.types = source.types;
+        this.categoryIds = source.categoryIds;
+        this.categoryNames = source.categoryNames;
+        this.categoryIndex = source.categoryIndex;
+        this.notesSource = source.notesSource;
+        this.notes = source.notes;
+        this.parallel = true;
+    }
+
+    // ================== LOAD ==================
+    /** Streams every row from the repository into a new snapshot. */
+    public static LedgerSnapshot load(TransactionRepository repository) throws SQLException {
+        Columns columns = new Columns(repository.countTransactions());
+        repository.forEachTransaction(columns::add);
+        return new LedgerSnapshot(columns, repository);
+    }
+
+    /**
+     * Builds a snapshot from rows already in ledger order. Notes are not
+     * available unless {@code notesSource} is given.
+     */
+    public static LedgerSnapshot of(Iterable<Transaction> ledger, TransactionRepository notesSource) {
+        Columns columns = new Columns(16);
+        for (Transaction t : ledger) {
+            columns.add(t);
+        }
+        return new LedgerSnapshot(columns, notesSource);
+    }
+
+    public LedgerSnapshot parallel() {
+        return parallel ? this : new LedgerSnapshot(this);
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    // ================== ROWS ==================
+    public int size() {
+        return size;
+    }
+
+    public int getId(int row) {
+        return ids[row];
+    }
+
+    public LocalDate getDate(int row) {
+        return LocalDate.ofEpochDay(epochDays[row]);
+    }
+
+    public long getAmount(int row) {
+        return amounts[row];
+    }
+
+    public TransactionType getType(int row) {
+        return TYPES[types[row]];
+    }
+
+    public String getCategory(int row) {
+        return categoryNames[categoryIds[row]];
+    }
+
+    /** Notes for one row, loaded from the repository the first time they are asked for. */
+    public String getNotes(int row) throws SQLException {
+        int id = ids[row];
+        synchronized (notes) {
+            if (notes.containsKey(id)) return notes.get(id);
+        }
+        if (notesSource == null) return null;
+
+        Transaction t = notesSource.findById(id);
+        String value = t == null ? null : t.getNotes();
+        synchronized (notes) {
+            notes.put(id, value);
+        }
+        return value;
+    }
+
+    public List<String> getCategories() {
+        return List.of(categoryNames);
+    }
+
+    // ================== QUERIES ==================
+    // Any argument may be null to mean "no restriction"
+
+    public long sum(LocalDate startDate, LocalDate endDate, TransactionType type, String category) {
+        Totals totals = scan(startDate, endDate, type, category);
+        return totals == null ? 0 : totals.sum();
+    }
+
+    public long count(LocalDate startDate, LocalDate endDate, TransactionType type, String category) {
+        Totals totals = scan(startDate, endDate, type, category);
+        return totals == null ? 0 : totals.count();
+    }
+
+    /** Same shape as the ledger summaries, computed from the columns. */
+    public TransactionSummary summarize(LocalDate startDate, LocalDate endDate, TransactionType type) {
+        Totals totals = scan(startDate, endDate, type, null);
+        if (totals == null) return TransactionSummary.empty();
+
+        return new TransactionSummary(
+                type == TransactionType.EXPENSE ? Map.of() : totals.byCategory(TransactionType.INCOME),
+                type == TransactionType.INCOME ? Map.of() : totals.byCategory(TransactionType.EXPENSE),
+                totals.count());
+    }
+
+    /** Row indexes matching the filter, in ledger order. */
+    public int[] rows(LocalDate startDate, LocalDate endDate, TransactionType type, String category) {
+        int categoryId = categoryId(category);
+        if (categoryId == -2) return new int[0];
+
+        int lo = firstRowOnOrBefore(endDate);
+        int hi = firstRowBefore(startDate);
+        int typeCode = type == null ? -1 : type.ordinal();
+
+        int[] matches = new int[Math.max(0, hi - lo)];
+        int n = 0;
+        for (int i = lo; i < hi; i++) {
+            if (typeCode >= 0 && types[i] != typeCode) continue;
+            if (categoryId >= 0 && categoryIds[i] != categoryId) continue;
+            matches[n++] = i;
+        }
+        return Arrays.copyOf(matches, n);
+    }
+
+    // ================== SCAN ==================
+    // null when the category is not in the dictionary, i.e. nothing can match
+    private Totals scan(LocalDate startDate, LocalDate endDate, TransactionType type, String category) {
+        int categoryId = categoryId(category);
+        if (categoryId == -2) return null;
+
+        int lo = firstRowOnOrBefore(endDate);
+        int hi = firstRowBefore(startDate);
+        int typeCode = type == null ? -1 : type.ordinal();
+
+        if (!parallel || hi - lo <= PARALLEL_THRESHOLD) {
+            Totals totals = new Totals();
+            accumulate(lo, hi, typeCode, categoryId, totals);
+            return totals;
+        }
+        return ForkJoinPool.commonPool().invoke(new ScanTask(lo, hi, typeCode, categoryId));
+    }
+
+    private void accumulate(int lo, int hi, int typeCode, int categoryId, Totals totals) {
+        long[] sums = totals.sums;
+        long[] counts = totals.counts;
+        int stride = categoryNames.length;
+
+        for (int i = lo; i < hi; i++) {
+            int t = types[i];
+            int c = categoryIds[i];
+            if (typeCode >= 0 && t != typeCode) continue;
+            if (categoryId >= 0 && c != categoryId) continue;
+
+            int cell = t * stride + c;
+            sums[cell] += amounts[i];
+            counts[cell]++;
+        }
+    }
+
+    private final class ScanTask extends RecursiveTask<Totals> {
+
+        private final int lo;
+        private final int hi;
+        private final int typeCode;
+        private final int categoryId;
+
+        ScanTask(int lo, int hi, int typeCode, int categoryId) {
+            this.lo = lo;
+            this.hi = hi;
+            this.typeCode = typeCode;
+            this.categoryId = categoryId;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (hi - lo <= PARALLEL_THRESHOLD) {
+                Totals totals = new Totals();
+                accumulate(lo, hi, typeCode, categoryId, totals);
+                return totals;
+            }
+
+            int mid = (lo + hi) >>> 1;
+            ScanTask left = new ScanTask(lo, mid, typeCode, categoryId);
+            left.fork();
+            Totals right = new ScanTask(mid, hi, typeCode, categoryId).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    // -1 = any category, -2 = unknown category
+    private int categoryId(String category) {
+        if (category == null) return -1;
+        Integer id = categoryIndex.get(category);
+        return id == null ? -2 : id;
+    }
+
+    // Rows are sorted by date descending: [0, lo) are after endDate
+    private int firstRowOnOrBefore(LocalDate endDate) {
+        if (endDate == null) return 0;
+        long day = endDate.toEpochDay();
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochDays[mid] > day) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // [hi, size) are before startDate
+    private int firstRowBefore(LocalDate startDate) {
+        if (startDate == null) return size;
+        long day = startDate.toEpochDay();
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochDays[mid] >= day) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // ================== TOTALS ==================
+    // Sum and count per (type, category) cell
+    private final class Totals {
+
+        private final long[] sums = new long[TYPES.length * categoryNames.length];
+        private final long[] counts = new long[sums.length];
+
+        Totals merge(Totals other) {
+            for (int i = 0; i < sums.length; i++) {
+                sums[i] += other.sums[i];
+                counts[i] += other.counts[i];
+            }
+            return this;
+        }
+
+        long sum() {
+            long total = 0;
+            for (long s : sums) total += s;
+            return total;
+        }
+
+        long count() {
+            long total = 0;
+            for (long c : counts) total += c;
+            return total;
+        }
+
+        // Largest total first, like the DAO and aggregate summaries
+        Map<String, Long> byCategory(TransactionType type) {
+            int base = type.ordinal() * categoryNames.length;
+            List<Integer> present = new ArrayList<>();
+            for (int c = 0; c < categoryNames.length; c++) {
+                if (counts[base + c] > 0) present.add(c);
+            }
+            present.sort((a, b) -> Long.compare(sums[base + b], sums[base + a]));
+
+            Map<String, Long> totals = new LinkedHashMap<>();
+            for (int c : present) {
+                totals.put(categoryNames[c], sums[base + c]);
+            }
+            return totals;
+        }
+    }
+
+    // ================== BUILD ==================
+    // Growable columns filled while streaming rows in
+    private static final class Columns {
+
+        private int size;
+        private int[] ids;
+        private int[] epochDays;
+        private long[] amounts;
+        private byte[] types;
+        private int[] categoryIds;
+
+        private final List<String> categoryNames = new ArrayList<>();
+        private final Map<String, Integer> categoryIndex = new HashMap<>();
+
+        Columns(int capacity) {
+            int initial = Math.max(16, capacity);
+            ids = new int[initial];
+            epochDays = new int[initial];
+            amounts = new long[initial];
+            types = new byte[initial];
+            categoryIds = new int[initial];
+        }
+
+        void add(Transaction t) {
+            int day = (int) t.getDate().toEpochDay();
+            if (size > 0 && day > epochDays[size - 1]) {
+                throw new IllegalArgumentException("Rows must be in ledger order (date descending)");
+            }
+            if (size == ids.length) {
+                grow();
+            }
+
+            ids[size] = t.getId();
+            epochDays[size] = day;
+            amounts[size] = t.getAmount();
+            types[size] = (byte) t.getType().ordinal();
+            categoryIds[size] = categoryIndex.computeIfAbsent(t.getCategory(), name -> {
+                categoryNames.add(name);
+                return categoryNames.size() - 1;
+            });
+            size++;
+        }
+
+        private void grow() {
+            int capacity = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            types = Arrays.copyOf(types, capacity);
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionFilter;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Read-through cache for query results, keyed by the filter parameters.
+ *
+ * Bounded by total weight (rows held), evicting least recently used first.
+ * A write invalidates only the entries whose filter would match the changed
+ * row. A load that overlaps a write is returned but not stored, so a stale
+ * result never stays cached.
+ */
+public class QueryCache {
+
+    /** What a cached value is; entries of different kinds never share a key. */
+    public enum Kind { FILTER, SUMMARY, COUNT }
+
+    private final long maxWeight;
+
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long weight;
+
+    // Bumped by every invalidation; loads that saw an older value are not stored
+    private long version;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public QueryCache(long maxWeight) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("Cache weight must be greater than zero");
+        }
+        this.maxWeight = maxWeight;
+    }
+
+    // ================== READ-THROUGH ==================
+    public <T> T get(Key key, Loader<T> loader, ToIntFunction<T> weigher) throws SQLException {
+        long seen;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hits++;
+                @SuppressWarnings("unchecked")
+                T cached = (T) entry.value;
+                return cached;
+            }
+            misses++;
+            seen = version;
+        }
+
+        T value = loader.load();
+        int w = Math.max(1, weigher.applyAsInt(value));
+
+        synchronized (this) {
+            if (seen == version && w <= maxWeight) {
+                Entry previous = entries.put(key, new Entry(value, w));
+                if (previous != null) weight -= previous.weight;
+                weight += w;
+                evictToFit();
+            }
+        }
+        return value;
+    }
+
+    private void evictToFit() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (weight > maxWeight && it.hasNext()) {
+            weight -= it.next().weight;
+            it.remove();
+            evictions++;
+        }
+    }
+
+    // ================== INVALIDATION ==================
+    /** Drops every entry whose filter matches the given row (before or after a write). */
+    public synchronized void invalidate(Transaction row) {
+        version++;
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, Entry> e = it.next();
+            if (e.getKey().matches(row)) {
+                weight -= e.getValue().weight;
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        version++;
+        invalidations += entries.size();
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits, misses, evictions, invalidations, entries.size(), weight, maxWeight);
+    }
+
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws SQLException;
+    }
+
+    // ================== KEY ==================
+    /** A cached query: what it computes and the filter it computes it over. */
+    public static final class Key {
+
+        private final Kind kind;
+        private final TransactionFilter filter;
+
+        public Key(Kind kind, TransactionFilter filter) {
+            this.kind = kind;
+            this.filter = filter;
+        }
+
+        /** True when a change to {@code row} may change this query's result. */
+        boolean matches(Transaction row) {
+            return filter.mayMatch(row);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return kind == other.kind && filter.equals(other.filter);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * kind.hashCode() + filter.hashCode();
+        }
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final int weight;
+
+        Entry(Object value, int weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
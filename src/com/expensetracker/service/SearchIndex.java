@@ -0,0 +1,365 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.Transaction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over transaction notes and category names.
+ *
+ * Each token maps to a sorted array of transaction ids. Query terms match
+ * as prefixes and every term must match (in notes or category). Hits are
+ * ranked by a tf-idf style score: rarer tokens count more, exact tokens
+ * more than prefixes, and category matches more than notes. Like
+ * {@link LedgerAggregates}, it is loaded once and then kept current by the
+ * service's writes.
+ *
+ * Loading does not stop writers. While the ledger is scanned, writes only
+ * note the ids they touched; once the scan ends, those rows are read again
+ * and re-indexed (see {@link #takeDirty} and {@link #refresh}) before the
+ * index is marked warm.
+ */
+public class SearchIndex {
+
+    // Cap on tokens a single short prefix may expand to
+    private static final int MAX_PREFIX_EXPANSION = 512;
+
+    private static final float EXACT_WEIGHT = 1.0f;
+    private static final float PREFIX_WEIGHT = 0.5f;
+    private static final float CATEGORY_WEIGHT = 1.5f;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final NavigableMap<String, Postings> notes = new TreeMap<>();
+    private final NavigableMap<String, Postings> categories = new TreeMap<>();
+    private int documents;
+
+    // Ids written during a load, re-read once the scan ends; null when not loading
+    private Set<Integer> dirty;
+
+    private volatile boolean warm;
+    private volatile boolean loading;
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /** True while writes must be reported: the index is warm or being loaded. */
+    public boolean isTracking() {
+        return warm || loading;
+    }
+
+    // ================== UPDATES ==================
+    public void add(Transaction t) {
+        lock.writeLock().lock();
+        try {
+            if (deferred(t.getId())) return;
+            insert(t);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Transaction old) {
+        lock.writeLock().lock();
+        try {
+            if (deferred(old.getId())) return;
+            delete(old);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void update(Transaction old, Transaction updated) {
+        lock.writeLock().lock();
+        try {
+            if (deferred(updated.getId())) return;
+            delete(old);
+            insert(updated);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** A write whose old row is unknown: re-read it if loading, otherwise reload on the next search. */
+    void markStale(int id) {
+        lock.writeLock().lock();
+        try {
+            if (!deferred(id)) warm = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private boolean deferred(int id) {
+        if (dirty == null) return false;
+        dirty.add(id);
+        return true;
+    }
+
+    private void insert(Transaction t) {
+        index(notes, tokenize(t.getNotes()), t.getId(), true);
+        index(categories, tokenize(t.getCategory()), t.getId(), true);
+        documents++;
+    }
+
+    private void delete(Transaction old) {
+        index(notes, tokenize(old.getNotes()), old.getId(), false);
+        index(categories, tokenize(old.getCategory()), old.getId(), false);
+        documents--;
+    }
+
+    private static void index(Map<String, Postings> field, List<String> tokens, int id, boolean add) {
+        for (String token : tokens) {
+            if (add) {
+                field.computeIfAbsent(token, k -> new Postings()).add(id);
+            } else {
+                Postings p = field.get(token);
+                if (p != null && p.remove(id) && p.size == 0) {
+                    field.remove(token);
+                }
+            }
+        }
+    }
+
+    // ================== LOAD ==================
+    /** Empties the index and starts noting written ids; feed the scan through {@link #load}. */
+    void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            notes.clear();
+            categories.clear();
+            documents = 0;
+            dirty = new HashSet<>();
+            warm = false;
+            loading = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** One scanned row. */
+    void load(Transaction t) {
+        lock.writeLock().lock();
+        try {
+            insert(t);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids written since the last call. When there are none the load is
+     * over and the index is warm; otherwise pass their current rows to
+     * {@link #refresh} and call again.
+     */
+    Set<Integer> takeDirty() {
+        lock.writeLock().lock();
+        try {
+            Set<Integer> ids = dirty;
+            if (ids.isEmpty()) {
+                dirty = null;
+                loading = false;
+                warm = true;
+            } else {
+                dirty = new HashSet<>();
+            }
+            return ids;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Replaces whatever is indexed for {@code ids} with {@code rows}, their current versions. */
+    void refresh(Collection<Integer> ids, Map<Integer, Transaction> rows) {
+        lock.writeLock().lock();
+        try {
+            for (int id : ids) {
+                if (purge(notes, id) | purge(categories, id)) documents--;
+                Transaction t = rows.get(id);
+                if (t != null) insert(t);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Abandons a failed load; the next search starts over. */
+    void abortLoad() {
+        lock.writeLock().lock();
+        try {
+            dirty = null;
+            loading = false;
+            warm = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The scanned version of a row is not kept, so every token is checked;
+    // only used for the few rows written during a load
+    private static boolean purge(Map<String, Postings> field, int id) {
+        boolean found = false;
+        for (Iterator<Postings> it = field.values().iterator(); it.hasNext(); ) {
+            Postings p = it.next();
+            if (p.remove(id)) {
+                found = true;
+                if (p.size == 0) it.remove();
+            }
+        }
+        return found;
+    }
+
+    // ================== SEARCH ==================
+    /**
+     * Ranked ids for one page of hits, plus the total number of hits.
+     * Only the best {@code offset + limit} hits are ordered.
+     */
+    public Hits search(String query, int offset, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) return new Hits(0, new int[0]);
+
+        lock.readLock().lock();
+        try {
+            // Scores only for candidates: ids matching every term so far
+            Map<Integer, Float> candidates = null;
+
+            for (String term : terms) {
+                Map<Integer, Float> termScores = new HashMap<>();
+                score(notes, term, 1.0f, candidates, termScores);
+                score(categories, term, CATEGORY_WEIGHT, candidates, termScores);
+
+                if (candidates != null) {
+                    for (Map.Entry<Integer, Float> e : termScores.entrySet()) {
+                        e.setValue(e.getValue() + candidates.get(e.getKey()));
+                    }
+                }
+                candidates = termScores;
+                if (candidates.isEmpty()) return new Hits(0, new int[0]);
+            }
+
+            return new Hits(candidates.size(), top(candidates, offset + limit, offset));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void score(NavigableMap<String, Postings> field, String term, float fieldWeight,
+                       Map<Integer, Float> candidates, Map<Integer, Float> termScores) {
+
+        int expanded = 0;
+        for (Map.Entry<String, Postings> e : field.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+            if (++expanded > MAX_PREFIX_EXPANSION) break;
+
+            Postings p = e.getValue();
+            float idf = (float) Math.log(1 + (double) Math.max(documents, 1) / p.size);
+            float weight = idf * fieldWeight * (e.getKey().equals(term) ? EXACT_WEIGHT : PREFIX_WEIGHT);
+
+            for (int i = 0; i < p.size; i++) {
+                int id = p.ids[i];
+                if (candidates == null || candidates.containsKey(id)) termScores.merge(id, weight, Float::sum);
+            }
+        }
+    }
+
+    // Best 'count' hits by score (then newest id), skipping the first 'skip'
+    private static int[] top(Map<Integer, Float> scores, int count, int skip) {
+        // Packed as score bits (non-negative floats sort like ints) then id
+        PriorityQueue<Long> heap = new PriorityQueue<>(Math.max(1, count));
+        for (Map.Entry<Integer, Float> e : scores.entrySet()) {
+            long key = ((long) Float.floatToIntBits(e.getValue()) << 32) | e.getKey();
+            if (heap.size() < count) {
+                heap.add(key);
+            } else if (count > 0 && key > heap.peek()) {
+                heap.poll();
+                heap.add(key);
+            }
+        }
+
+        int[] ranked = new int[heap.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = (int) (long) heap.poll();
+        }
+        return skip >= ranked.length ? new int[0] : Arrays.copyOfRange(ranked, skip, ranked.length);
+    }
+
+    // ================== TOKENS ==================
+    /** Lower-cased runs of letters and digits. */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                String token = text.substring(start, i).toLowerCase();
+                if (!tokens.contains(token)) tokens.add(token);
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /** One page of ranked hits. */
+    public static final class Hits {
+
+        private final int total;
+        private final int[] ids;
+
+        Hits(int total, int[] ids) {
+            this.total = total;
+            this.ids = ids;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int[] getIds() {
+            return ids;
+        }
+    }
+
+    // Sorted, growable id array; ids are mostly appended in increasing order
+    private static final class Postings {
+
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            int at = size > 0 && ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0 && at < size) return; // already present
+            int insert = at >= 0 ? at : -at - 1;
+
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            System.arraycopy(ids, insert, ids, insert + 1, size - insert);
+            ids[insert] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) return false;
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.Transaction;
+
+import java.util.List;
+
+/**
+ * One page of ranked search hits and the total number of hits.
+ */
+public final class SearchResults {
+
+    private final int total;
+    private final List<Transaction> transactions;
+
+    public SearchResults(int total, List<Transaction> transactions) {
+        this.total = total;
+        this.transactions = transactions;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    /** Best match first. */
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+}
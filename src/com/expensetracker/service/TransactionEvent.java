@@ -0,0 +1,80 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.Transaction;
+
+/**
+ * One committed change to the ledger, published by {@link TransactionService}
+ * through the {@link TransactionEventBus}.
+ *
+ * {@link #getOld()} is the row before the change when the service had it
+ * loaded; it may be {@code null} for updates and deletes.
+ */
+public final class TransactionEvent {
+
+    public enum Type { ADDED, UPDATED, DELETED }
+
+    private final Type type;
+    private final int id;
+    private final Transaction old;
+    private final Transaction current;
+
+    private TransactionEvent(Type type, int id, Transaction old, Transaction current) {
+        this.type = type;
+        this.id = id;
+        this.old = old;
+        this.current = current;
+    }
+
+    public static TransactionEvent added(Transaction current) {
+        return new TransactionEvent(Type.ADDED, current.getId(), null, current);
+    }
+
+    public static TransactionEvent updated(Transaction old, Transaction current) {
+        return new TransactionEvent(Type.UPDATED, current.getId(), old, current);
+    }
+
+    public static TransactionEvent deleted(int id, Transaction old) {
+        return new TransactionEvent(Type.DELETED, id, old, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Transaction getOld() {
+        return old;
+    }
+
+    /** The row after the change; {@code null} for deletes. */
+    public Transaction getCurrent() {
+        return current;
+    }
+
+    /**
+     * Folds a later event for the same id into this one, so a burst of
+     * changes to one row is delivered as its net effect. Returns
+     * {@code null} when the two cancel out (added, then deleted).
+     */
+    TransactionEvent then(TransactionEvent next) {
+        return switch (type) {
+            case ADDED -> switch (next.type) {
+                case ADDED, UPDATED -> added(next.current);
+                case DELETED -> null;
+            };
+            case UPDATED -> switch (next.type) {
+                case ADDED, UPDATED -> updated(old, next.current);
+                case DELETED -> deleted(id, old);
+            };
+            case DELETED -> next.type == Type.DELETED ? this : updated(old, next.current);
+        };
+    }
+
+    @Override
+    public String toString() {
+        return type + "(" + id + ")";
+    }
+}
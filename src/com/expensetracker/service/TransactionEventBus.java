@@ -0,0 +1,107 @@
+package com.expensetracker.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-process publish/subscribe for ledger changes.
+ *
+ * Events published within a short window are coalesced per transaction id
+ * and delivered together as one list, so a batch write or an import
+ * reaches each subscriber as a few calls rather than one per row.
+ */
+public class TransactionEventBus {
+
+    private static final Logger LOG = Logger.getLogger(TransactionEventBus.class.getName());
+
+    private static final long COALESCE_MILLIS = Long.getLong("expensetracker.events.coalesceMs", 50L);
+
+    @FunctionalInterface
+    public interface Listener {
+        void onTransactionsChanged(List<TransactionEvent> events);
+    }
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "transaction-events");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Guarded by this
+    private Map<Integer, TransactionEvent> pending = new LinkedHashMap<>();
+    private boolean flushScheduled;
+
+    // ================== SUBSCRIBE ==================
+    /** Delivers event batches to {@code listener} on {@code executor}, e.g. {@code SwingUtilities::invokeLater}. */
+    public void subscribe(Listener listener, Executor executor) {
+        subscribers.add(new Subscriber(listener, executor));
+    }
+
+    public void unsubscribe(Listener listener) {
+        subscribers.removeIf(s -> s.listener == listener);
+    }
+
+    // ================== PUBLISH ==================
+    public void publish(TransactionEvent event) {
+        synchronized (this) {
+            TransactionEvent previous = pending.get(event.getId());
+            if (previous == null) {
+                pending.put(event.getId(), event);
+            } else {
+                TransactionEvent merged = previous.then(event);
+                if (merged == null) pending.remove(event.getId());
+                else pending.put(event.getId(), merged);
+            }
+
+            if (flushScheduled) return;
+            flushScheduled = true;
+        }
+        scheduler.schedule(this::flush, COALESCE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public void publishAll(Iterable<TransactionEvent> events) {
+        for (TransactionEvent e : events) {
+            publish(e);
+        }
+    }
+
+    private void flush() {
+        List<TransactionEvent> batch;
+        synchronized (this) {
+            batch = List.copyOf(pending.values());
+            pending = new LinkedHashMap<>();
+            flushScheduled = false;
+        }
+        if (batch.isEmpty()) return;
+
+        for (Subscriber s : subscribers) {
+            s.executor.execute(() -> {
+                try {
+                    s.listener.onTransactionsChanged(batch);
+                } catch (RuntimeException e) {
+                    LOG.log(Level.WARNING, "Transaction listener failed", e);
+                }
+            });
+        }
+    }
+
+    private static final class Subscriber {
+        private final Listener listener;
+        private final Executor executor;
+
+        Subscriber(Listener listener, Executor executor) {
+            this.listener = listener;
+            this.executor = executor;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of writes that were accepted but may not be in the
+ * database yet.
+ *
+ * Each record is {@code [length][crc32][seq][op][payload]}. ADD, UPDATE and
+ * DELETE records carry one mutation; a COMMIT record says every record up
+ * to its sequence number reached the database. An ADD also carries the
+ * row's write key (see {@link #appendAdd}); ADD records written before
+ * keys existed are still read, without one. On open, mutations after
+ * the last COMMIT are returned by {@link #pending()}; a torn or corrupt
+ * tail (a crash mid-append) is cleared.
+ *
+ * The file is memory-mapped and grown in {@code MAP_CHUNK} steps; the
+ * zeroed space after the last record marks the end of the log. An append
+ * is a copy into the page cache, so it survives an application crash
+ * without a system call; {@code fsync} also forces it to the device.
+ */
+public class TransactionJournal implements Closeable {
+
+    private static final Logger LOG = Logger.getLogger(TransactionJournal.class.getName());
+
+    /** Kinds of journaled mutation. */
+    public enum Op { ADD, UPDATE, DELETE }
+
+    private static final byte OP_ADD = 1;
+    private static final byte OP_COMMIT = 2;
+    private static final byte OP_UPDATE = 3;
+    private static final byte OP_DELETE = 4;
+    private static final byte OP_ADD_KEYED = 5;
+
+    // Once everything is committed, a journal larger than this starts over
+    private static final long COMPACT_BYTES = 1 << 20;
+
+    private static final int MAP_CHUNK = 1 << 20;
+
+    private static final int MAX_RECORD_BYTES = 1 << 16;
+
+    private final Path file;
+    private final boolean fsync;
+    private final ArrayDeque<Entry> pending;
+
+    private FileChannel channel;
+    private MappedByteBuffer log; // position() is the end of the last record
+
+    private long lastSeq;
+    private long committedSeq;
+
+    private TransactionJournal(Path file, boolean fsync, FileChannel channel, MappedByteBuffer log,
+                               ArrayDeque<Entry> pending, long lastSeq, long committedSeq) {
+        this.file = file;
+        this.fsync = fsync;
+        this.channel = channel;
+        this.log = log;
+        this.pending = pending;
+        this.lastSeq = lastSeq;
+        this.committedSeq = committedSeq;
+    }
+
+    /**
+     * Opens (or creates) the journal and reads back what was not committed.
+     * With {@code fsync} every append is forced to disk; without it, records
+     * survive an application crash but not a power loss.
+     */
+    public static TransactionJournal open(Path file, boolean fsync) throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer log = map(channel, Math.max(channel.size(), MAP_CHUNK));
+
+            ArrayDeque<Entry> entries = new ArrayDeque<>();
+            long lastSeq = 0;
+            long committedSeq = 0;
+            boolean torn = false;
+
+            while (log.remaining() >= 8) {
+                int start = log.position();
+                int length = log.getInt(start);
+                if (length == 0) break; // unused space
+
+                int crc = log.getInt(start + 4);
+                if (length < 0 || length > MAX_RECORD_BYTES || length > log.remaining() - 8) {
+                    torn = true;
+                    break;
+                }
+                byte[] body = new byte[length];
+                log.get(start + 8, body);
+                if (checksum(body) != crc) {
+                    torn = true;
+                    break;
+                }
+
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+                long seq = in.readLong();
+                byte op = in.readByte();
+                if (op == OP_COMMIT) {
+                    committedSeq = seq;
+                } else {
+                    entries.add(readEntry(seq, op, in));
+                    lastSeq = seq;
+                }
+                log.position(start + 8 + length);
+            }
+
+            if (torn) {
+                LOG.warning("Discarding unreadable records at offset " + log.position() + " of " + file);
+                for (int i = log.position(); i < log.limit(); i++) {
+                    log.put(i, (byte) 0);
+                }
+            }
+
+            long committed = committedSeq;
+            entries.removeIf(e -> e.seq <= committed);
+            // After compaction the file may hold only a COMMIT; numbering continues past it
+            return new TransactionJournal(file, fsync, channel, log, entries,
+                    Math.max(lastSeq, committedSeq), committedSeq);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Mutations not yet marked committed, oldest first. */
+    public synchronized List<Entry> pending() {
+        return List.copyOf(pending);
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    // ================== APPEND ==================
+    /**
+     * Records a transaction to be added; returns its sequence number. The
+     * row is given a random write key first, if it has none, so a replay
+     * can find out whether it was already stored.
+     */
+    public synchronized long appendAdd(Transaction t) throws IOException {
+        if (t.getWriteKey() == null) t.setWriteKey(UUID.randomUUID().toString());
+        return appendEntry(new Entry(lastSeq + 1, Op.ADD, t, 0));
+    }
+
+    /** Records new values for the transaction with {@code t.getId()}. */
+    public synchronized long appendUpdate(Transaction t) throws IOException {
+        return appendEntry(new Entry(lastSeq + 1, Op.UPDATE, t, t.getId()));
+    }
+
+    public synchronized long appendDelete(int id) throws IOException {
+        return appendEntry(new Entry(lastSeq + 1, Op.DELETE, null, id));
+    }
+
+    private long appendEntry(Entry entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(entry.seq);
+        switch (entry.op) {
+            case ADD -> {
+                out.writeByte(OP_ADD_KEYED);
+                out.writeUTF(entry.transaction.getWriteKey());
+                writeTransaction(out, entry.transaction);
+            }
+            case UPDATE -> {
+                out.writeByte(OP_UPDATE);
+                out.writeInt(entry.id);
+                writeTransaction(out, entry.transaction);
+            }
+            case DELETE -> {
+                out.writeByte(OP_DELETE);
+                out.writeInt(entry.id);
+            }
+        }
+        append(bytes.toByteArray());
+        pending.add(entry);
+        lastSeq = entry.seq;
+        return entry.seq;
+    }
+
+    /** Records that every entry up to {@code seq} is in the database. */
+    public synchronized void markCommitted(long seq) throws IOException {
+        if (seq <= committedSeq) return;
+
+        while (!pending.isEmpty() && pending.peekFirst().seq <= seq) {
+            pending.removeFirst();
+        }
+        if (seq == lastSeq && log.position() > COMPACT_BYTES && compact(seq)) {
+            committedSeq = seq;
+            return;
+        }
+
+        append(commitRecord(seq));
+        committedSeq = seq;
+    }
+
+    // Nothing is outstanding, so the history can go. The new file is written
+    // beside the old one and renamed over it, so a crash leaves one or the other
+    private boolean compact(long seq) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            byte[] body = commitRecord(seq);
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer record = ByteBuffer.allocate(8 + body.length);
+                record.putInt(body.length).putInt(checksum(body)).put(body).flip();
+                while (record.hasRemaining()) {
+                    out.write(record);
+                }
+                out.force(false);
+            }
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // e.g. the platform refuses to replace a mapped file; keep appending
+            LOG.fine("Journal compaction skipped: " + e.getMessage());
+            Files.deleteIfExists(tmp);
+            return false;
+        }
+
+        channel.close();
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int end = (int) channel.size();
+        log = map(channel, MAP_CHUNK);
+        log.position(end);
+        return true;
+    }
+
+    private void append(byte[] body) throws IOException {
+        int needed = 8 + body.length;
+        if (log.remaining() < needed) grow(needed);
+
+        int start = log.position();
+        log.putInt(body.length).putInt(checksum(body)).put(body);
+        if (fsync) log.force(start, needed);
+    }
+
+    private void grow(int needed) throws IOException {
+        long size = (long) log.capacity() + Math.max(MAP_CHUNK, needed);
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Journal " + file + " is full; the database has been unavailable too long");
+        }
+        int end = log.position();
+        log = map(channel, size);
+        log.position(end);
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (fsync) log.force();
+        channel.close();
+    }
+
+    // ================== ENCODING ==================
+    private static int checksum(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] commitRecord(long seq) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(seq);
+        out.writeByte(OP_COMMIT);
+        return bytes.toByteArray();
+    }
+
+    private static Entry readEntry(long seq, byte op, DataInputStream in) throws IOException {
+        return switch (op) {
+            case OP_ADD -> new Entry(seq, Op.ADD, readTransaction(in, 0), 0);
+            case OP_ADD_KEYED -> {
+                String writeKey = in.readUTF();
+                Transaction t = readTransaction(in, 0);
+                t.setWriteKey(writeKey);
+                yield new Entry(seq, Op.ADD, t, 0);
+            }
+            case OP_UPDATE -> {
+                int id = in.readInt();
+                yield new Entry(seq, Op.UPDATE, readTransaction(in, id), id);
+            }
+            case OP_DELETE -> new Entry(seq, Op.DELETE, null, in.readInt());
+            default -> throw new IOException("Unknown journal record type " + op + " at seq " + seq);
+        };
+    }
+
+    private static void writeTransaction(DataOutputStream out, Transaction t) throws IOException {
+        out.writeLong(t.getAmount());
+        out.writeLong(t.getDate().toEpochDay());
+        out.writeUTF(t.getCategory());
+        out.writeUTF(t.getType().name());
+        out.writeBoolean(t.getNotes() != null);
+        if (t.getNotes() != null) out.writeUTF(t.getNotes());
+    }
+
+    private static Transaction readTransaction(DataInputStream in, int id) throws IOException {
+        long amount = in.readLong();
+        LocalDate date = LocalDate.ofEpochDay(in.readLong());
+        String category = in.readUTF();
+        TransactionType type = TransactionType.valueOf(in.readUTF());
+        String notes = in.readBoolean() ? in.readUTF() : null;
+        return new Transaction(id, amount, date, category, type, notes);
+    }
+
+    /** One journaled mutation and its sequence number. */
+    public static final class Entry {
+
+        private final long seq;
+        private final Op op;
+        private final Transaction transaction;
+        private final int id;
+
+        Entry(long seq, Op op, Transaction transaction, int id) {
+            this.seq = seq;
+            this.op = op;
+            this.transaction = transaction;
+            this.id = id;
+        }
+
+        public long getSeq() {
+            return seq;
+        }
+
+        public Op getOp() {
+            return op;
+        }
+
+        /** The row to add, or the new values of an update; null for a delete. */
+        public Transaction getTransaction() {
+            return transaction;
+        }
+
+        /** The row updated or deleted; 0 for an add. */
+        public int getId() {
+            return id;
+        }
+    }
+}
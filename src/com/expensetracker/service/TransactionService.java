@@ -1,27 +1,135 @@
 package com.expensetracker.service;
 
-import com.expensetracker.dao.TransactionDAO;
+import com.expensetracker.dao.TransactionCursor;
+import com.expensetracker.dao.TransactionPage;
+import com.expensetracker.dao.TransactionRepository;
+import com.expensetracker.metrics.LatencyHistogram;
+import com.expensetracker.metrics.Metrics;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Granularity;
 import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionFilter;
+import com.expensetracker.model.TransactionSummary;
 import com.expensetracker.model.TransactionType;
+import com.expensetracker.model.TrendReport;
 
+import java.io.IOException;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 public class TransactionService {
 
-    private final TransactionDAO transactionDAO;
+    // Shared by every service instance so all panels see the same totals
+    private static final LedgerAggregates AGGREGATES = new LedgerAggregates();
+
+    // Writers hold the read side while they write + apply their delta;
+    // a rebuild takes the write side so it never sees a half-applied write
+    private static final ReadWriteLock REBUILD_GATE = new ReentrantReadWriteLock();
+
+    // Filter, count and range-summary results; also shared so a write through
+    // any service instance invalidates what the panels have cached
+    private static final QueryCache CACHE =
+            new QueryCache(Long.getLong("expensetracker.cache.maxRows", 50_000L));
+
+    // Notes/category search, loaded on first search and then kept current
+    private static final SearchIndex SEARCH = new SearchIndex();
+    // One search index load at a time; writers are not held up by it
+    private static final Lock SEARCH_LOAD = new ReentrantLock();
+
+    // Committed changes, for panels that update in place instead of reloading
+    private static final TransactionEventBus EVENTS = new TransactionEventBus();
+
+    private static final Logger LOG = Logger.getLogger(TransactionService.class.getName());
+
+    // Service-level latency, including cache hits; DAO calls are timed separately as dao.*
+    private static final LatencyHistogram FILTER_TIMER = Metrics.timer("service.filterTransactions");
+    private static final LatencyHistogram SUMMARY_TIMER = Metrics.timer("service.getSummary");
+    private static final LatencyHistogram RANGE_SUMMARY_TIMER = Metrics.timer("service.getSummary.range");
+    private static final LatencyHistogram TREND_TIMER = Metrics.timer("service.getTrend");
+    private static final LatencyHistogram SEARCH_TIMER = Metrics.timer("service.searchTransactions");
+
+    private final TransactionRepository transactionDAO;
+
+    // Writes go here first when -Dexpensetracker.journal=true; null otherwise
+    private final JournaledWriter journal;
+
+    /** One instance for the whole UI, so every panel reads through the same cache. */
+    public static TransactionService shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    private static final class SharedHolder {
+        private static final TransactionService INSTANCE =
+                new TransactionService(TransactionRepository.create(), openJournal());
+    }
+
+    private static JournaledWriter openJournal() {
+        if (!JournaledWriter.isEnabled()) return null;
+        try {
+            return JournaledWriter.openConfigured();
+        } catch (IOException e) {
+            LOG.warning("Write journal unavailable, writing to the database directly: " + e.getMessage());
+            return null;
+        }
+    }
 
     public TransactionService() {
-        this.transactionDAO = new TransactionDAO();
+        this(TransactionRepository.create());
+    }
+
+    public TransactionService(TransactionRepository repository) {
+        this(repository, null);
+    }
+
+    public TransactionService(TransactionRepository repository, JournaledWriter journal) {
+        this.transactionDAO = repository;
+        this.journal = journal;
+        if (journal != null) journal.attach(this);
     }
 
     // ================== ADD ==================
     public void addTransaction(Transaction transaction) throws SQLException {
         validateTransaction(transaction);
-        transactionDAO.addTransaction(transaction);
+
+        if (journal != null) {
+            journal.add(List.of(transaction), null, () -> {
+                writeAdd(transaction);
+                return null;
+            });
+        } else {
+            writeAdd(transaction);
+        }
+    }
+
+    private void writeAdd(Transaction transaction) throws SQLException {
+        REBUILD_GATE.readLock().lock();
+        try {
+            transactionDAO.addTransaction(transaction);
+            if (AGGREGATES.isWarm()) AGGREGATES.applyAdd(transaction);
+            if (SEARCH.isTracking()) SEARCH.add(transaction);
+            CACHE.invalidate(transaction);
+            EVENTS.publish(TransactionEvent.added(transaction));
+        } finally {
+            REBUILD_GATE.readLock().unlock();
+        }
     }
 
     // ================== UPDATE ==================
@@ -30,7 +138,29 @@ public class TransactionService {
             throw new IllegalArgumentException("Invalid transaction ID");
         }
         validateTransaction(transaction);
-        transactionDAO.updateTransaction(transaction);
+
+        if (journal != null) {
+            journal.update(List.of(transaction), null, () -> {
+                writeUpdate(transaction);
+                return null;
+            });
+        } else {
+            writeUpdate(transaction);
+        }
+    }
+
+    private void writeUpdate(Transaction transaction) throws SQLException {
+        REBUILD_GATE.readLock().lock();
+        try {
+            // Read under the update's row lock, so concurrent writes to this row each see their own predecessor
+            Transaction old = transactionDAO.updateTransaction(transaction);
+            if (old != null && AGGREGATES.isWarm()) AGGREGATES.applyUpdate(old, transaction);
+            reindex(transaction.getId(), old, transaction);
+            invalidate(old == null ? null : List.of(old, transaction));
+            EVENTS.publish(TransactionEvent.updated(old, transaction));
+        } finally {
+            REBUILD_GATE.readLock().unlock();
+        }
     }
 
     // ================== DELETE ==================
@@ -38,7 +168,212 @@ public class TransactionService {
         if (id <= 0) {
             throw new IllegalArgumentException("Invalid transaction ID");
         }
-        transactionDAO.deleteTransaction(id);
+
+        if (journal != null) {
+            journal.delete(new int[]{id}, null, () -> {
+                writeDelete(id);
+                return null;
+            });
+        } else {
+            writeDelete(id);
+        }
+    }
+
+    private void writeDelete(int id) throws SQLException {
+        REBUILD_GATE.readLock().lock();
+        try {
+            Transaction old = transactionDAO.deleteTransaction(id);
+            if (old != null && AGGREGATES.isWarm()) AGGREGATES.applyDelete(old);
+            reindex(id, old, null);
+            invalidate(old == null ? null : List.of(old));
+            EVENTS.publish(TransactionEvent.deleted(id, old));
+        } finally {
+            REBUILD_GATE.readLock().unlock();
+        }
+    }
+
+    // ================== BATCH ==================
+    // With the journal on, a batch written while the database is unreachable
+    // returns no ids (zeros) and counts of Statement.SUCCESS_NO_INFO
+
+    public int[] addTransactions(Collection<Transaction> transactions) throws SQLException {
+        validateBatch(transactions, false);
+
+        if (journal != null) {
+            return journal.add(transactions, new int[transactions.size()], () -> writeAdds(transactions));
+        }
+        return writeAdds(transactions);
+    }
+
+    // Also used by journal replay, so everything in memory follows replayed writes
+    int[] writeAdds(Collection<Transaction> transactions) throws SQLException {
+        REBUILD_GATE.readLock().lock();
+        try {
+            int[] keys = transactionDAO.addTransactions(transactions);
+            if (AGGREGATES.isWarm()) {
+                for (Transaction t : transactions) AGGREGATES.applyAdd(t);
+            }
+            if (SEARCH.isTracking()) {
+                for (Transaction t : transactions) SEARCH.add(t);
+            }
+            invalidate(transactions);
+            for (Transaction t : transactions) EVENTS.publish(TransactionEvent.added(t));
+            return keys;
+        } finally {
+            REBUILD_GATE.readLock().unlock();
+        }
+    }
+
+    /**
+     * Journal replay of adds. A row whose write key is already stored got
+     * there in a write that failed after committing (e.g. the connection
+     * dropped during commit), or before a crash; it gets its stored id and
+     * is not inserted again. Repeats of a key within the run are skipped too.
+     */
+    void replayAdds(Collection<Transaction> transactions) throws SQLException {
+        Map<String, Transaction> keyed = new LinkedHashMap<>();
+        List<Transaction> rows = new ArrayList<>(transactions.size());
+        for (Transaction t : transactions) {
+            if (t.getWriteKey() == null) rows.add(t);
+            else if (keyed.putIfAbsent(t.getWriteKey(), t) == null) rows.add(t);
+        }
+
+        Map<String, Integer> stored = transactionDAO.findWriteKeys(keyed.keySet());
+        if (!stored.isEmpty()) {
+            List<Transaction> applied = new ArrayList<>(stored.size());
+            for (Map.Entry<String, Integer> e : stored.entrySet()) {
+                Transaction t = keyed.get(e.getKey());
+                t.setId(e.getValue());
+                applied.add(t);
+            }
+            rows.removeAll(applied);
+            LOG.info(applied.size() + " journaled adds were already in the database; not adding them again");
+
+            // Memory may or may not have them: re-read instead of applying deltas.
+            // An updated event with no old row makes views find the row or reload
+            REBUILD_GATE.readLock().lock();
+            try {
+                for (Transaction t : applied) {
+                    if (SEARCH.isTracking()) SEARCH.markStale(t.getId());
+                    EVENTS.publish(TransactionEvent.updated(null, t));
+                }
+                invalidate(applied);
+            } finally {
+                REBUILD_GATE.readLock().unlock();
+            }
+        }
+        if (!rows.isEmpty()) writeAdds(rows);
+    }
+
+    public int[] updateTransactions(Collection<Transaction> transactions) throws SQLException {
+        validateBatch(transactions, true);
+
+        if (journal != null) {
+            return journal.update(transactions, queuedCounts(transactions.size()),
+                    () -> writeUpdates(transactions));
+        }
+        return writeUpdates(transactions);
+    }
+
+    int[] writeUpdates(Collection<Transaction> transactions) throws SQLException {
+        REBUILD_GATE.readLock().lock();
+        try {
+            Map<Integer, Transaction> old = new HashMap<>();
+            int[] counts = transactionDAO.updateTransactions(transactions, old);
+            if (AGGREGATES.isWarm()) {
+                for (Transaction t : transactions) {
+                    Transaction previous = old.get(t.getId());
+                    if (previous != null) AGGREGATES.applyUpdate(previous, t);
+                }
+            }
+            for (Transaction t : transactions) {
+                reindex(t.getId(), old.get(t.getId()), t);
+            }
+            invalidate(old.values());
+            invalidate(transactions);
+            for (Transaction t : transactions) {
+                EVENTS.publish(TransactionEvent.updated(old.get(t.getId()), t));
+            }
+            return counts;
+        } finally {
+            REBUILD_GATE.readLock().unlock();
+        }
+    }
+
+    public int[] deleteTransactions(int[] ids) throws SQLException {
+        if (ids == null) {
+            throw new IllegalArgumentException("Transaction IDs cannot be null");
+        }
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] <= 0) {
+                throw new IllegalArgumentException("Invalid transaction ID at position " + i);
+            }
+        }
+
+        if (journal != null) {
+            return journal.delete(ids, queuedCounts(ids.length), () -> writeDeletes(ids));
+        }
+        return writeDeletes(ids);
+    }
+
+    int[] writeDeletes(int[] ids) throws SQLException {
+        REBUILD_GATE.readLock().lock();
+        try {
+            Map<Integer, Transaction> old = new HashMap<>();
+            int[] counts = transactionDAO.deleteTransactions(ids, old);
+            if (AGGREGATES.isWarm()) {
+                for (Transaction t : old.values()) AGGREGATES.applyDelete(t);
+            }
+            for (int id : ids) {
+                reindex(id, old.get(id), null);
+            }
+            invalidate(old.values());
+            for (int id : ids) {
+                EVENTS.publish(TransactionEvent.deleted(id, old.get(id)));
+            }
+            return counts;
+        } finally {
+            REBUILD_GATE.readLock().unlock();
+        }
+    }
+
+    private static int[] queuedCounts(int size) {
+        int[] counts = new int[size];
+        Arrays.fill(counts, Statement.SUCCESS_NO_INFO);
+        return counts;
+    }
+
+    // ================== JOURNAL ==================
+    /**
+     * Called once the journal has replayed a write that failed while it may
+     * have been committing: what memory derived from it may be wrong, so the
+     * aggregates are reloaded on next use and the rows are re-read for search.
+     */
+    void writeWasInDoubt(int[] ids) {
+        REBUILD_GATE.readLock().lock();
+        try {
+            AGGREGATES.clear();
+            CACHE.invalidateAll();
+            for (int id : ids) {
+                if (id > 0 && SEARCH.isTracking()) SEARCH.markStale(id);
+            }
+        } finally {
+            REBUILD_GATE.readLock().unlock();
+        }
+    }
+
+    /** True while writes are only being journaled because the database is unreachable. */
+    public boolean isOffline() {
+        return journal != null && journal.isOffline();
+    }
+
+    /** Journaled writes not yet in the database; always 0 without the journal. */
+    public int getQueuedWriteCount() {
+        return journal == null ? 0 : journal.getPendingCount();
+    }
+
+    public JournaledWriter getJournal() {
+        return journal;
     }
 
     // ================== GET ALL ==================
@@ -46,48 +381,326 @@ public class TransactionService {
         return transactionDAO.getAllTransactions();
     }
 
+    // ================== PAGING / STREAMING ==================
+    public TransactionPage getPage(TransactionCursor after, int limit) throws SQLException {
+        return transactionDAO.findPage(after, limit);
+    }
+
+    public int countTransactions() throws SQLException {
+        return CACHE.get(new QueryCache.Key(QueryCache.Kind.COUNT, TransactionFilter.all()),
+                transactionDAO::countTransactions, count -> 1);
+    }
+
+    public List<Transaction> getRange(int offset, int limit) throws SQLException {
+        if (offset < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Invalid range: offset=" + offset + ", limit=" + limit);
+        }
+        return transactionDAO.findRange(offset, limit);
+    }
+
+    public void forEachTransaction(Consumer<Transaction> action) throws SQLException {
+        transactionDAO.forEachTransaction(action);
+    }
+
+    public Stream<Transaction> streamTransactions() throws SQLException {
+        return transactionDAO.streamTransactions();
+    }
+
     // ================== FILTER ==================
-    public List<Transaction> filterTransactions(
+    public List<Transaction> filterTransactions(TransactionFilter filter) throws SQLException {
+        if (filter == null) {
+            throw new IllegalArgumentException("Filter cannot be null");
+        }
+
+        long start = System.nanoTime();
+        try {
+            return CACHE.get(new QueryCache.Key(QueryCache.Kind.FILTER, filter),
+                    () -> Collections.unmodifiableList(transactionDAO.filterTransactions(filter)),
+                    List::size);
+        } finally {
+            FILTER_TIMER.recordSince(start);
+        }
+    }
+
+    /** Streams the rows matching {@code filter}; bypasses the cache, for exports. */
+    public void forEachFiltered(TransactionFilter filter, Consumer<Transaction> action) throws SQLException {
+        if (filter == null) {
+            throw new IllegalArgumentException("Filter cannot be null");
+        }
+        transactionDAO.forEachFiltered(filter, action);
+    }
+
+    // ================== SUMMARY ==================
+    // Served from the in-memory aggregates; the first call warms them
+    public TransactionSummary getSummary() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            ensureAggregatesWarm();
+            return AGGREGATES.getSummary();
+        } finally {
+            SUMMARY_TIMER.recordSince(start);
+        }
+    }
+
+    public TransactionSummary getSummary(
             LocalDate startDate,
             LocalDate endDate,
-            String category,
             TransactionType type) throws SQLException {
 
         if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
             throw new IllegalArgumentException("Start date cannot be after end date");
         }
 
-        return transactionDAO.filterTransactions(startDate, endDate, category, type);
+        long start = System.nanoTime();
+        try {
+            ensureAggregatesWarm();
+            TransactionFilter filter = TransactionFilter.all().withDateRange(startDate, endDate).withType(type);
+            return CACHE.get(new QueryCache.Key(QueryCache.Kind.SUMMARY, filter),
+                    () -> AGGREGATES.getSummary(startDate, endDate, type),
+                    s -> 1 + s.getIncomeByCategory().size() + s.getExpenseByCategory().size());
+        } finally {
+            RANGE_SUMMARY_TIMER.recordSince(start);
+        }
     }
 
-    // ================== SUMMARY ==================
-    public Map<String, Double> getSummary() throws SQLException {
+    public List<Category> getCategories() throws SQLException {
+        return transactionDAO.getCategories();
+    }
 
-        List<Transaction> transactions = transactionDAO.getAllTransactions();
+    /** Columnar copy of the whole ledger for analytics; see {@link LedgerSnapshot}. */
+    public LedgerSnapshot loadSnapshot() throws SQLException {
+        return LedgerSnapshot.load(transactionDAO);
+    }
 
-        double totalIncome = 0;
-        double totalExpense = 0;
+    // ================== AGGREGATES ==================
+    public LedgerAggregates getAggregates() {
+        return AGGREGATES;
+    }
 
-        for (Transaction t : transactions) {
-            if (t.getType() == TransactionType.INCOME) {
-                totalIncome += t.getAmount();
-            } else if (t.getType() == TransactionType.EXPENSE) {
-                totalExpense += t.getAmount();
+    /** Loads the in-memory aggregates once; later calls are no-ops. */
+    public void ensureAggregatesWarm() throws SQLException {
+        if (!AGGREGATES.isWarm()) {
+            rebuildAggregates(false);
+        }
+    }
+
+    /** Discards the in-memory aggregates and reloads them from the database. */
+    public void rebuildAggregates() throws SQLException {
+        rebuildAggregates(true);
+    }
+
+    private void rebuildAggregates(boolean force) throws SQLException {
+        REBUILD_GATE.writeLock().lock();
+        try {
+            if (!force && AGGREGATES.isWarm()) return;
+
+            AGGREGATES.clear();
+            CACHE.invalidateAll();
+            transactionDAO.forEachDailyTotal(AGGREGATES::addGroup);
+            AGGREGATES.markWarm();
+        } finally {
+            REBUILD_GATE.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Compares the in-memory totals with a fresh SQL aggregation.
+     * Returns {@code true} when every type/category total matches exactly.
+     */
+    public boolean verifyAggregates() throws SQLException {
+        REBUILD_GATE.writeLock().lock();
+        try {
+            if (!AGGREGATES.isWarm()) return false;
+
+            TransactionSummary memory = AGGREGATES.getSummary();
+            TransactionSummary database = transactionDAO.summarize(null, null, null);
+
+            return memory.getTransactionCount() == database.getTransactionCount()
+                    && memory.getIncomeByCategory().equals(database.getIncomeByCategory())
+                    && memory.getExpenseByCategory().equals(database.getExpenseByCategory());
+        } finally {
+            REBUILD_GATE.writeLock().unlock();
+        }
+    }
+
+    // ================== TRENDS ==================
+    /**
+     * Totals per category for each {@code granularity} period overlapping
+     * [startDate, endDate], read from the rollup tables: a multi-year
+     * monthly report reads one row per (month, category, type).
+     * {@code type} may be {@code null} for income and expense together.
+     */
+    public TrendReport getTrend(
+            Granularity granularity,
+            LocalDate startDate,
+            LocalDate endDate,
+            TransactionType type) throws SQLException {
+
+        if (granularity == null || startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Granularity, start date and end date are required");
+        }
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date cannot be after end date");
+        }
+
+        long start = System.nanoTime();
+        try {
+            List<LocalDate> periods = new ArrayList<>();
+            Map<LocalDate, Integer> index = new HashMap<>();
+            for (LocalDate p = granularity.bucketStart(startDate); !p.isAfter(endDate); p = granularity.next(p)) {
+                index.put(p, periods.size());
+                periods.add(p);
+            }
+
+            Map<String, long[]> series = new HashMap<>();
+            transactionDAO.forEachRollup(granularity, periods.get(0), endDate, type,
+                    (period, rowType, category, total, count) -> {
+                        Integer i = index.get(granularity.bucketStart(period));
+                        if (i != null) series.computeIfAbsent(category, c -> new long[periods.size()])[i] += total;
+                    });
+
+            // Largest category first, so a chart can keep the top few and group the rest
+            Map<String, long[]> ordered = new LinkedHashMap<>();
+            series.entrySet().stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<String, long[]> e) -> -sum(e.getValue())))
+                    .forEachOrdered(e -> ordered.put(e.getKey(), e.getValue()));
+            return new TrendReport(granularity, periods, ordered);
+        } finally {
+            TREND_TIMER.recordSince(start);
+        }
+    }
+
+    private static long sum(long[] values) {
+        long total = 0;
+        for (long v : values) total += v;
+        return total;
+    }
+
+    /**
+     * Recomputes the rollup tables from the ledger, for a backfill or after
+     * rows were changed outside the application. The in-memory aggregates
+     * are warmed from the daily rollup, so they are reloaded too.
+     */
+    public void rebuildRollups() throws SQLException {
+        REBUILD_GATE.writeLock().lock();
+        try {
+            transactionDAO.rebuildRollups();
+            if (AGGREGATES.isWarm()) rebuildAggregates(true);
+        } finally {
+            REBUILD_GATE.writeLock().unlock();
+        }
+    }
+
+    // ================== SEARCH ==================
+    /**
+     * Ranked search over notes and category names. Every word must match,
+     * as a prefix, in either field; the index is loaded on first use.
+     */
+    public SearchResults searchTransactions(String query, int offset, int limit) throws SQLException {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search text is required");
+        }
+        if (offset < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Invalid range: offset=" + offset + ", limit=" + limit);
+        }
+
+        long start = System.nanoTime();
+        try {
+            ensureSearchWarm();
+            SearchIndex.Hits hits = SEARCH.search(query, offset, limit);
+
+            Map<Integer, Transaction> rows = transactionDAO.findByIds(hits.getIds());
+            List<Transaction> ranked = new ArrayList<>(hits.getIds().length);
+            for (int id : hits.getIds()) {
+                Transaction t = rows.get(id);
+                if (t != null) ranked.add(t);
             }
+            return new SearchResults(hits.getTotal(), ranked);
+        } finally {
+            SEARCH_TIMER.recordSince(start);
         }
+    }
 
-        double balance = totalIncome - totalExpense;
+    /**
+     * Loads the search index if it is not warm. Writes carry on during the
+     * scan; rows they touch are read again afterwards (see {@link SearchIndex}).
+     */
+    public void ensureSearchWarm() throws SQLException {
+        if (SEARCH.isWarm()) return;
+
+        // Not under REBUILD_GATE: a queued rebuild would park writers behind the scan
+        SEARCH_LOAD.lock();
+        try {
+            if (SEARCH.isWarm()) return;
+            boolean loaded = false;
+            try {
+                SEARCH.beginLoad();
+                transactionDAO.forEachTransaction(SEARCH::load);
+                for (Set<Integer> ids = SEARCH.takeDirty(); !ids.isEmpty(); ids = SEARCH.takeDirty()) {
+                    SEARCH.refresh(ids, transactionDAO.findByIds(ids.stream().mapToInt(Integer::intValue).toArray()));
+                }
+                loaded = true;
+            } finally {
+                if (!loaded) SEARCH.abortLoad();
+            }
+        } finally {
+            SEARCH_LOAD.unlock();
+        }
+    }
+
+    // Without the old row its tokens cannot be removed, so re-read the row
+    private static void reindex(int id, Transaction old, Transaction current) {
+        if (!SEARCH.isTracking()) return;
+        if (old == null) SEARCH.markStale(id);
+        else if (current == null) SEARCH.remove(old);
+        else SEARCH.update(old, current);
+    }
+
+    // ================== EVENTS ==================
+    public TransactionEventBus getEventBus() {
+        return EVENTS;
+    }
 
-        Map<String, Double> summary = new HashMap<>();
-        summary.put("income", totalIncome);
-        summary.put("expense", totalExpense);
-        summary.put("balance", balance);
+    // ================== CACHE ==================
+    public CacheStats getCacheStats() {
+        return CACHE.getStats();
+    }
 
-        return summary;
+    // null = the affected rows are unknown, drop everything
+    private static void invalidate(Collection<Transaction> rows) {
+        if (rows == null) {
+            CACHE.invalidateAll();
+            return;
+        }
+        for (Transaction t : rows) {
+            CACHE.invalidate(t);
+        }
     }
 
     // ================== VALIDATION ==================
-    private void validateTransaction(Transaction transaction) {
+    // Rejects the whole batch before anything is written
+    private void validateBatch(Collection<Transaction> transactions, boolean requireId) {
+
+        if (transactions == null) {
+            throw new IllegalArgumentException("Transactions cannot be null");
+        }
+
+        int index = 0;
+        for (Transaction t : transactions) {
+            try {
+                if (requireId && t != null && t.getId() <= 0) {
+                    throw new IllegalArgumentException("Invalid transaction ID");
+                }
+                validateTransaction(t);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                        "Transaction at position " + index + ": " + e.getMessage(), e);
+            }
+            index++;
+        }
+    }
+
+    public void validateTransaction(Transaction transaction) {
 
         if (transaction == null) {
             throw new IllegalArgumentException("Transaction cannot be null");
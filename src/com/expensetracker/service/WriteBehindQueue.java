@@ -0,0 +1,327 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.Transaction;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Accepts new transactions immediately and adds them to the database in
+ * the background, many rows per commit.
+ *
+ * {@link #submit} validates the row, appends it to the journal (when one is
+ * configured) and queues it. A single writer thread takes up to
+ * {@code groupSize} rows, waiting at most {@code groupMillis} for the group
+ * to fill, and adds them with one {@link TransactionService#addTransactions}
+ * call, i.e. one database transaction. Rows journaled but not committed
+ * before a crash are queued again on the next start; a crash between a
+ * commit and its journal mark can therefore add that group twice.
+ *
+ * Enabled with {@code -Dexpensetracker.writeBehind=true}; see
+ * {@link #shared()} for the other settings.
+ */
+public class WriteBehindQueue implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(WriteBehindQueue.class.getName());
+
+    private static final long MAX_RETRY_DELAY_MS = 5_000;
+
+    private final TransactionService service;
+    private final TransactionJournal journal;
+    private final int groupSize;
+    private final long groupMillis;
+
+    // Capacity is a semaphore so a permit is only returned once its row is committed
+    private final Semaphore capacity;
+    private final LinkedBlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+
+    private volatile boolean closed;
+    private volatile BiConsumer<Transaction, Exception> errorHandler =
+            (t, e) -> LOG.warning("Dropped queued transaction: " + e.getMessage());
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong committedRows = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("expensetracker.writeBehind");
+    }
+
+    /**
+     * The queue used by the UI, created on first use. Settings:
+     * {@code expensetracker.writeBehind.capacity} (rows, default 10000),
+     * {@code .groupSize} (rows per commit, 200), {@code .groupMillis} (50),
+     * {@code .journal} (false to disable), {@code .journal.fsync} (false)
+     * and {@code expensetracker.journal.dir} (default {@code ~/.expense-tracker}).
+     */
+    public static WriteBehindQueue shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    private static final class SharedHolder {
+        private static final WriteBehindQueue INSTANCE = createShared();
+    }
+
+    private static WriteBehindQueue createShared() {
+        TransactionJournal journal = null;
+        if (Boolean.parseBoolean(System.getProperty("expensetracker.writeBehind.journal", "true"))) {
+            Path file = Paths.get(System.getProperty("expensetracker.journal.dir",
+                    System.getProperty("user.home") + "/.expense-tracker"), "write-behind.journal");
+            try {
+                journal = TransactionJournal.open(file, Boolean.getBoolean("expensetracker.writeBehind.journal.fsync"));
+            } catch (IOException e) {
+                LOG.warning("Write-behind journal unavailable, queued rows will not survive a crash: "
+                        + e.getMessage());
+            }
+        }
+
+        WriteBehindQueue queue = new WriteBehindQueue(
+                TransactionService.shared(),
+                journal,
+                Integer.getInteger("expensetracker.writeBehind.capacity", 10_000),
+                Integer.getInteger("expensetracker.writeBehind.groupSize", 200),
+                Long.getLong("expensetracker.writeBehind.groupMillis", 50L));
+
+        Runtime.getRuntime().addShutdownHook(new Thread(queue::close, "write-behind-shutdown"));
+        return queue;
+    }
+
+    public WriteBehindQueue(TransactionService service, TransactionJournal journal,
+                            int capacity, int groupSize, long groupMillis) {
+        if (capacity <= 0 || groupSize <= 0 || groupMillis < 0) {
+            throw new IllegalArgumentException("Invalid write-behind settings: capacity=" + capacity
+                    + ", groupSize=" + groupSize + ", groupMillis=" + groupMillis);
+        }
+        this.service = service;
+        this.journal = journal;
+        this.groupSize = groupSize;
+        this.groupMillis = groupMillis;
+        this.capacity = new Semaphore(capacity);
+
+        // Recovered rows go ahead of anything new; they may exceed the capacity once
+        if (journal != null) {
+            List<TransactionJournal.Entry> recovered = journal.pending();
+            for (TransactionJournal.Entry e : recovered) {
+                queue.add(new Pending(e.getSeq(), e.getTransaction(), false));
+            }
+            pending.set(recovered.size());
+            if (!recovered.isEmpty()) {
+                LOG.info("Recovered " + recovered.size() + " uncommitted transactions from the journal");
+            }
+        }
+
+        writer = new Thread(this::drain, "write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public void setErrorHandler(BiConsumer<Transaction, Exception> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    // ================== SUBMIT ==================
+    /**
+     * Queues {@code t} to be added and returns at once. Invalid rows are
+     * rejected with {@link IllegalArgumentException}; a full or closed queue
+     * with {@link IllegalStateException}.
+     */
+    public void submit(Transaction t) throws IOException {
+        service.validateTransaction(t);
+        if (closed) {
+            throw new IllegalStateException("Write queue is closed");
+        }
+        if (!capacity.tryAcquire()) {
+            throw new IllegalStateException("Too many unsaved transactions; try again shortly");
+        }
+
+        // Journal and queue order must agree, since commits are marked by sequence
+        try {
+            synchronized (this) {
+                long seq = journal == null ? 0 : journal.appendAdd(t);
+                queue.add(new Pending(seq, t, true));
+            }
+            pending.incrementAndGet();
+            submitted.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+            capacity.release();
+            throw e;
+        }
+    }
+
+    /** Rows accepted but not yet committed. */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    public long getCommittedCount() {
+        return committedRows.get();
+    }
+
+    /** Database transactions used so far; committed rows / commits is the group size achieved. */
+    public long getCommitCount() {
+        return commits.get();
+    }
+
+    // ================== WRITER ==================
+    private void drain() {
+        List<Pending> group = new ArrayList<>(groupSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                group.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(groupMillis);
+                while (group.size() < groupSize) {
+                    queue.drainTo(group, groupSize - group.size());
+                    long wait = deadline - System.nanoTime();
+                    if (group.size() >= groupSize || wait <= 0 || closed) break;
+
+                    Pending next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    group.add(next);
+                }
+
+                commit(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // The writer must survive, or queued rows would never be committed
+                LOG.log(Level.SEVERE, "Write-behind group of " + group.size() + " rows failed", e);
+                for (Pending p : group) {
+                    if (!p.settled) reject(p, e);
+                }
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    // Outages are retried until they pass; a group the database rejects is
+    // split into single rows so only the bad ones are dropped
+    private void commit(List<Pending> group) throws InterruptedException {
+        List<Transaction> rows = new ArrayList<>(group.size());
+        for (Pending p : group) rows.add(p.transaction);
+
+        Exception rejected = addWithRetry(rows);
+        if (rejected == null) {
+            commits.incrementAndGet();
+            committedRows.addAndGet(rows.size());
+            settle(group);
+        } else if (group.size() == 1) {
+            reject(group.get(0), rejected);
+        } else {
+            for (Pending p : group) commit(List.of(p));
+        }
+    }
+
+    // null once the rows are in, otherwise the reason the database refused them
+    private Exception addWithRetry(List<Transaction> rows) throws InterruptedException {
+        long delay = 100;
+        while (true) {
+            try {
+                service.addTransactions(rows);
+                return null;
+            } catch (SQLException e) {
+                if (!DatabaseErrors.isOutage(e)) return e;
+                LOG.warning("Group commit of " + rows.size() + " rows failed, retrying: " + e.getMessage());
+            } catch (RuntimeException e) {
+                return e;
+            }
+            Thread.sleep(delay);
+            delay = Math.min(delay * 2, MAX_RETRY_DELAY_MS);
+        }
+    }
+
+    // Hands a row the database will not take to the error handler and drops it
+    private void reject(Pending p, Exception reason) {
+        try {
+            errorHandler.accept(p.transaction, reason);
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Write-behind error handler failed", e);
+        }
+        settle(List.of(p));
+    }
+
+    // The group is done with (stored or dropped): free its capacity and mark
+    // it in the journal. Rows already settled are skipped.
+    private void settle(List<Pending> group) {
+        int permits = 0;
+        int rows = 0;
+        long seq = 0;
+        for (Pending p : group) {
+            if (p.settled) continue;
+            p.settled = true;
+            rows++;
+            if (p.holdsPermit) permits++;
+            seq = Math.max(seq, p.seq);
+        }
+        capacity.release(permits);
+        pending.addAndGet(-rows);
+
+        if (journal != null && seq > 0) {
+            try {
+                journal.markCommitted(seq);
+            } catch (IOException | RuntimeException e) {
+                LOG.warning("Could not mark journal entries committed: " + e.getMessage());
+            }
+        }
+    }
+
+    // ================== SHUTDOWN ==================
+    /** Stops accepting rows and waits briefly for the queued ones to be committed. */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        try {
+            writer.join(Long.getLong("expensetracker.writeBehind.closeTimeoutMs", 5_000L));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            LOG.warning(queue.size() + " queued transactions were not committed"
+                    + (journal != null ? "; they will be retried on the next start" : ""));
+        }
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                LOG.warning("Could not close the write-behind journal: " + e.getMessage());
+            }
+        }
+    }
+
+    private static final class Pending {
+
+        private final long seq;
+        private final Transaction transaction;
+        private final boolean holdsPermit;
+        private boolean settled; // writer thread only
+
+        Pending(long seq, Transaction transaction, boolean holdsPermit) {
+            this.seq = seq;
+            this.transaction = transaction;
+            this.holdsPermit = holdsPermit;
+        }
+    }
+}
@@ -1,11 +1,39 @@
 package com.expensetracker.ui;
 
+import com.expensetracker.dao.QueryPlanChecker;
+import com.expensetracker.db.DBConnection;
+import com.expensetracker.diagnostics.EdtWatchdog;
+import com.expensetracker.service.TransactionService;
+
 import javax.swing.SwingUtilities;
+import java.sql.SQLException;
+import java.util.logging.Logger;
 
 public class AppLauncher {
     public static void main(String[] args) {
+        EdtWatchdog.start();
+
         SwingUtilities.invokeLater(() -> {
             new MainUI().setVisible(true);
         });
+
+        // Backfill job: recompute the rollup tables, e.g. after bulk SQL edits
+        if (Boolean.getBoolean("expensetracker.rollups.rebuild")) {
+            Thread rebuild = new Thread(() -> {
+                try {
+                    TransactionService.shared().rebuildRollups();
+                } catch (SQLException e) {
+                    Logger.getLogger(AppLauncher.class.getName()).warning("Rollup rebuild failed: " + e.getMessage());
+                }
+            }, "rollup-rebuild");
+            rebuild.setDaemon(true);
+            rebuild.start();
+        }
+
+        if (Boolean.getBoolean("expensetracker.explain") && DBConnection.getDialect().supportsExplain()) {
+            Thread check = new Thread(() -> new QueryPlanChecker().logWarnings(), "query-plan-check");
+            check.setDaemon(true);
+            check.start();
+        }
     }
 }
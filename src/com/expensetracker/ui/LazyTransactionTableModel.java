@@ -0,0 +1,366 @@
+package com.expensetracker.ui;
+
+import com.expensetracker.dao.TransactionCursor;
+import com.expensetracker.model.Money;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.service.AsyncTransactionService;
+import com.expensetracker.service.TransactionEvent;
+
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Read-only table model that only knows the row count up front and loads
+ * fixed-size pages when the table asks for rows it has not seen yet.
+ *
+ * Pages are kept in a small LRU cache and neighbouring pages are
+ * prefetched in the background. All state is touched on the EDT only.
+ *
+ * A page that fails to load is asked for again once it is visible, after
+ * a delay that doubles with each failure; only the first failure is
+ * reported.
+ */
+class LazyTransactionTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMNS = {"ID", "Amount", "Date", "Category", "Type", "Notes"};
+
+    private static final int RETRY_BASE_MILLIS = 500;
+    private static final int RETRY_MAX_MILLIS = 30_000;
+
+    private final AsyncTransactionService asyncService;
+    private final int pageSize;
+
+    private final Map<Integer, List<Transaction>> pages;
+    // Last row of each page seen so far, so the next page can seek by key
+    private final Map<Integer, TransactionCursor> pageEndCursors = new HashMap<>();
+    private final Set<Integer> loading = new HashSet<>();
+    // Failed loads in a row per page, cleared when the page loads or pages move
+    private final Map<Integer, Integer> failures = new HashMap<>();
+
+    private TransactionPageSource source;
+    private int rowCount;
+    private int generation;
+    private boolean counting;
+
+    // Bumped when rows are inserted or removed; page loads started before are dropped
+    private int layout;
+
+    private Consumer<Throwable> errorHandler = ex -> { };
+
+    LazyTransactionTableModel(AsyncTransactionService asyncService, int pageSize, int maxCachedPages) {
+        this.asyncService = asyncService;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Transaction>> eldest) {
+                return size() > maxCachedPages;
+            }
+        };
+    }
+
+    void setErrorHandler(Consumer<Throwable> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    // ================= SOURCE =================
+    /**
+     * Switches to a new row source. {@code onReady} receives the row count
+     * once it is known; results of any earlier source are discarded.
+     */
+    void setSource(TransactionPageSource newSource, Consumer<Integer> onReady) {
+
+        int gen = ++generation;
+        source = newSource;
+        counting = true;
+        rowCount = 0;
+        pages.clear();
+        pageEndCursors.clear();
+        loading.clear();
+        failures.clear();
+        fireTableDataChanged();
+
+        SwingAsync.onEdt(asyncService.supply(newSource::count), count -> {
+            if (gen != generation) return;
+            counting = false;
+            rowCount = count;
+            fireTableDataChanged();
+            if (count > 0) requestPage(0);
+            onReady.accept(count);
+        }, ex -> {
+            if (gen != generation) return;
+            errorHandler.accept(ex);
+        });
+    }
+
+    /** Drops the current source; nothing pending will be applied. */
+    void cancel() {
+        generation++;
+        counting = false;
+        loading.clear();
+        failures.clear();
+    }
+
+    // ================= IN-PLACE CHANGES =================
+    /**
+     * Applies committed changes to the rows already loaded, firing row
+     * inserted/updated/deleted events for just those rows; loaded pages
+     * are shifted in memory rather than fetched again.
+     *
+     * Returns {@code false} when a change lands outside the loaded rows and
+     * its position cannot be known; the caller should reload the source.
+     */
+    boolean applyChanges(List<TransactionEvent> events, Comparator<Transaction> order) {
+        if (counting) return false;
+
+        for (TransactionEvent e : events) {
+            boolean applied = switch (e.getType()) {
+                case ADDED -> insert(e.getCurrent(), order);
+                case UPDATED -> replace(e.getCurrent(), order);
+                case DELETED -> remove(e.getId());
+            };
+            if (!applied) return false;
+        }
+        return true;
+    }
+
+    private boolean insert(Transaction t, Comparator<Transaction> order) {
+        int row = insertionIndex(t, order);
+        if (row < 0) return false;
+
+        shiftPages(row, t);
+        fireTableRowsInserted(row, row);
+        return true;
+    }
+
+    private boolean replace(Transaction t, Comparator<Transaction> order) {
+        int row = indexOf(t.getId());
+        if (row < 0) return false;
+
+        int page = row / pageSize;
+        List<Transaction> rows = pages.get(page);
+        int index = row - page * pageSize;
+
+        if (order.compare(rows.get(index), t) != 0) {
+            // The sort key changed (e.g. a new date), so the row moves
+            return remove(t.getId()) && insert(t, order);
+        }
+
+        List<Transaction> updated = new ArrayList<>(rows);
+        updated.set(index, t);
+        pages.put(page, updated);
+        fireTableRowsUpdated(row, row);
+        return true;
+    }
+
+    private boolean remove(int id) {
+        int row = indexOf(id);
+        if (row < 0) return false;
+
+        shiftPages(row, null);
+        fireTableRowsDeleted(row, row);
+        return true;
+    }
+
+    private int indexOf(int id) {
+        for (Map.Entry<Integer, List<Transaction>> e : pages.entrySet()) {
+            List<Transaction> rows = e.getValue();
+            for (int i = 0; i < rows.size(); i++) {
+                if (rows.get(i).getId() == id) return e.getKey() * pageSize + i;
+            }
+        }
+        return -1;
+    }
+
+    // Position of a new row, or -1 if it falls next to rows that are not loaded
+    private int insertionIndex(Transaction t, Comparator<Transaction> order) {
+        if (rowCount == 0) return 0;
+
+        int lastLoaded = -1;
+        for (int page : new TreeSet<>(pages.keySet())) {
+            List<Transaction> rows = pages.get(page);
+            int base = page * pageSize;
+
+            for (int i = 0; i < rows.size(); i++) {
+                if (order.compare(t, rows.get(i)) < 0) {
+                    if (i > 0) return base + i;
+                    // Goes before this page: only known if the page before was scanned too
+                    return base == 0 || lastLoaded == page - 1 ? base : -1;
+                }
+            }
+            lastLoaded = page;
+        }
+
+        // After every loaded row: only known if the loaded rows reach the end
+        if (lastLoaded >= 0) {
+            int end = lastLoaded * pageSize + pages.get(lastLoaded).size();
+            if (end == rowCount) return rowCount;
+        }
+        return -1;
+    }
+
+    /**
+     * Inserts {@code inserted} at {@code row}, or removes the row there when it
+     * is {@code null}, then re-splits the run of loaded pages from that point.
+     * A trailing page left short is dropped, as are pages after the run, and
+     * they load again from the new layout when visible.
+     */
+    private void shiftPages(int row, Transaction inserted) {
+        int first = row / pageSize;
+
+        List<Transaction> run = new ArrayList<>();
+        for (int page = first; pages.containsKey(page); page++) {
+            run.addAll(pages.get(page));
+        }
+
+        int offset = row - first * pageSize;
+        if (inserted != null) run.add(offset, inserted);
+        else run.remove(offset);
+
+        layout++;
+        loading.clear();
+        failures.clear();
+        pages.keySet().removeIf(p -> p >= first);
+        pageEndCursors.keySet().removeIf(p -> p >= first);
+        rowCount += inserted != null ? 1 : -1;
+
+        for (int page = first, from = 0; from < run.size(); page++, from += pageSize) {
+            int to = Math.min(run.size(), from + pageSize);
+            boolean complete = to - from == pageSize || page * pageSize + (to - from) == rowCount;
+            if (!complete) break;
+
+            List<Transaction> rows = new ArrayList<>(run.subList(from, to));
+            Transaction end = rows.get(rows.size() - 1);
+            pages.put(page, rows);
+            pageEndCursors.put(page, new TransactionCursor(end.getDate(), end.getId()));
+        }
+    }
+
+    // ================= TABLE MODEL =================
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false; // JTable is read-only
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+
+        Transaction t = getTransactionAt(row);
+        if (t == null) {
+            return column == 0 ? "..." : null;
+        }
+
+        return switch (column) {
+            case 0 -> t.getId();
+            case 1 -> Money.toPlainString(t.getAmount());
+            case 2 -> t.getDate();
+            case 3 -> t.getCategory();
+            case 4 -> t.getType();
+            case 5 -> t.getNotes();
+            default -> null;
+        };
+    }
+
+    /**
+     * Returns the row if its page is loaded, otherwise schedules the load and
+     * returns {@code null}; the table repaints when the page arrives.
+     */
+    Transaction getTransactionAt(int row) {
+
+        if (row < 0 || row >= rowCount) return null;
+
+        int page = row / pageSize;
+        List<Transaction> rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            requestPage(page + 1);
+            if (page > 0) requestPage(page - 1);
+            return null;
+        }
+
+        int index = row - page * pageSize;
+        return index < rows.size() ? rows.get(index) : null;
+    }
+
+    // ================= PAGE LOADING =================
+    private void requestPage(int page) {
+
+        int offset = page * pageSize;
+        if (offset >= rowCount || pages.containsKey(page) || !loading.add(page)) return;
+
+        int gen = generation;
+        int pageLayout = layout;
+        TransactionPageSource current = source;
+        TransactionCursor after = page == 0 ? null : pageEndCursors.get(page - 1);
+
+        SwingAsync.onEdt(asyncService.supply(() -> current.fetch(offset, pageSize, after)), rows -> {
+            if (gen != generation) return;
+            loading.remove(page);
+            if (pageLayout != layout) {
+                // Rows moved while this page was loading; ask again from the new layout
+                if (offset < rowCount) {
+                    fireTableRowsUpdated(offset, Math.min(rowCount, offset + pageSize) - 1);
+                }
+                return;
+            }
+            pages.put(page, rows);
+            failures.remove(page);
+
+            if (!rows.isEmpty()) {
+                Transaction last = rows.get(rows.size() - 1);
+                pageEndCursors.put(page, new TransactionCursor(last.getDate(), last.getId()));
+            }
+
+            int last = Math.min(rowCount, offset + pageSize) - 1;
+            fireTableRowsUpdated(offset, last);
+        }, ex -> {
+            if (gen != generation || pageLayout != layout) return;
+            int attempts = failures.merge(page, 1, Integer::sum);
+            if (attempts == 1) errorHandler.accept(ex);
+            retryLater(page, attempts);
+        });
+    }
+
+    // The page stays marked as loading until the delay is up, so repaints
+    // do not retry it in a loop; then its rows repaint and, if visible, ask again
+    private void retryLater(int page, int attempts) {
+        int gen = generation;
+        int pageLayout = layout;
+        int delay = (int) Math.min(RETRY_MAX_MILLIS, (long) RETRY_BASE_MILLIS << Math.min(attempts - 1, 16));
+
+        Timer timer = new Timer(delay, e -> {
+            if (gen != generation || pageLayout != layout) return;
+            loading.remove(page);
+            int offset = page * pageSize;
+            if (offset < rowCount) {
+                fireTableRowsUpdated(offset, Math.min(rowCount, offset + pageSize) - 1);
+            }
+        });
+        timer.setRepeats(false);
+        timer.start();
+    }
+}
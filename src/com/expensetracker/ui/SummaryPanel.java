@@ -1,14 +1,21 @@
 package com.expensetracker.ui;
 
-import com.expensetracker.model.Transaction;
+import com.expensetracker.model.Granularity;
+import com.expensetracker.model.Money;
+import com.expensetracker.model.TransactionSummary;
 import com.expensetracker.model.TransactionType;
+import com.expensetracker.model.TrendReport;
+import com.expensetracker.service.AsyncTransactionService;
 import com.expensetracker.service.TransactionService;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.List;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class SummaryPanel extends JPanel {
 
@@ -17,13 +24,52 @@ public class SummaryPanel extends JPanel {
     private JLabel lblBalance;
 
     private PieChartPanel pieChartPanel;
+    private TrendChartPanel trendChartPanel;
+    private JComboBox<TrendRange> cmbTrendRange;
 
     private final TransactionService transactionService;
+    private final AsyncTransactionService asyncService;
+
+    private CompletableFuture<TransactionSummary> pendingRefresh;
+    private CompletableFuture<TrendReport> pendingTrend;
+
+    // Expense trend choices: range and bucket size of the bar chart
+    private enum TrendRange {
+        DAYS_30("Last 30 days", Granularity.DAY),
+        MONTHS_12("Last 12 months", Granularity.MONTH),
+        YEARS_5("Last 5 years by quarter", Granularity.QUARTER);
+
+        private final String label;
+        private final Granularity granularity;
+
+        TrendRange(String label, Granularity granularity) {
+            this.label = label;
+            this.granularity = granularity;
+        }
+
+        LocalDate start(LocalDate today) {
+            return switch (this) {
+                case DAYS_30 -> today.minusDays(29);
+                case MONTHS_12 -> today.withDayOfMonth(1).minusMonths(11);
+                case YEARS_5 -> today.withDayOfYear(1).minusYears(4);
+            };
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
 
     public SummaryPanel() {
-        this.transactionService = new TransactionService();
+        this.transactionService = TransactionService.shared();
+        this.asyncService = new AsyncTransactionService(transactionService);
         initializeUI();
         refreshSummary();
+
+        // Totals are kept up to date by applying each change to the ledger
+        // aggregates, so this re-reads memory rather than the database
+        transactionService.getEventBus().subscribe(events -> refreshSummary(), SwingUtilities::invokeLater);
     }
 
     // ================= UI SETUP =================
@@ -34,9 +80,9 @@ public class SummaryPanel extends JPanel {
 
         JPanel summaryBox = new JPanel(new GridLayout(1, 3, 15, 5));
 
-        lblIncome = createSummaryLabel("Total Income: ₹0.00", new Color(0, 128, 0));
-        lblExpense = createSummaryLabel("Total Expense: ₹0.00", Color.RED);
-        lblBalance = createSummaryLabel("Balance: ₹0.00", Color.BLUE);
+        lblIncome = createSummaryLabel("Total Income: " + Money.format(0), new Color(0, 128, 0));
+        lblExpense = createSummaryLabel("Total Expense: " + Money.format(0), Color.RED);
+        lblBalance = createSummaryLabel("Balance: " + Money.format(0), Color.BLUE);
 
         summaryBox.add(lblIncome);
         summaryBox.add(lblExpense);
@@ -44,8 +90,24 @@ public class SummaryPanel extends JPanel {
 
         pieChartPanel = new PieChartPanel();
 
+        trendChartPanel = new TrendChartPanel();
+        cmbTrendRange = new JComboBox<>(TrendRange.values());
+        cmbTrendRange.setSelectedItem(TrendRange.MONTHS_12);
+        cmbTrendRange.addActionListener(e -> refreshTrend());
+
+        JPanel trendBox = new JPanel(new BorderLayout(5, 5));
+        JPanel trendHeader = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
+        trendHeader.add(new JLabel("Expense trend:"));
+        trendHeader.add(cmbTrendRange);
+        trendBox.add(trendHeader, BorderLayout.NORTH);
+        trendBox.add(trendChartPanel, BorderLayout.CENTER);
+
+        JPanel charts = new JPanel(new GridLayout(1, 2, 15, 5));
+        charts.add(pieChartPanel);
+        charts.add(trendBox);
+
         add(summaryBox, BorderLayout.NORTH);
-        add(pieChartPanel, BorderLayout.CENTER);
+        add(charts, BorderLayout.CENTER);
     }
 
     // ================= LABEL STYLE =================
@@ -58,52 +120,80 @@ public class SummaryPanel extends JPanel {
 
     // ================= REFRESH =================
     public void refreshSummary() {
-        try {
-            updateSummaryValues();
-            updateChart();
-        } catch (Exception ex) {
+
+        // Only the latest refresh is allowed to paint
+        if (pendingRefresh != null) {
+            pendingRefresh.cancel(true);
+        }
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+
+        CompletableFuture<TransactionSummary> refresh = asyncService.getSummary();
+        pendingRefresh = refresh;
+
+        SwingAsync.onEdt(refresh, summary -> {
+            if (refresh != pendingRefresh) return;
+            pendingRefresh = null;
+            setCursor(Cursor.getDefaultCursor());
+            updateSummaryValues(summary);
+            updateChart(summary);
+        }, ex -> {
+            if (refresh != pendingRefresh) return;
+            pendingRefresh = null;
+            setCursor(Cursor.getDefaultCursor());
             JOptionPane.showMessageDialog(this,
                     "Failed to load summary",
                     "Error",
                     JOptionPane.ERROR_MESSAGE);
-        }
-    }
+        });
 
-    // ================= SUMMARY VALUES =================
-    private void updateSummaryValues() throws Exception {
+        refreshTrend();
+    }
 
-        Map<String, Double> summary = transactionService.getSummary();
+    // ================= TREND =================
+    // Read from the rollup tables: one row per period and category
+    private void refreshTrend() {
 
-        double income = summary.get("income");
-        double expense = summary.get("expense");
-        double balance = summary.get("balance");
+        if (pendingTrend != null) {
+            pendingTrend.cancel(true);
+        }
 
-        lblIncome.setText(String.format("Total Income: ₹%.2f", income));
-        lblExpense.setText(String.format("Total Expense: ₹%.2f", expense));
-        lblBalance.setText(String.format("Balance: ₹%.2f", balance));
+        TrendRange range = (TrendRange) cmbTrendRange.getSelectedItem();
+        LocalDate today = LocalDate.now();
+
+        CompletableFuture<TrendReport> trend = asyncService.getTrend(
+                range.granularity, range.start(today), today, TransactionType.EXPENSE);
+        pendingTrend = trend;
+
+        SwingAsync.onEdt(trend, report -> {
+            if (trend != pendingTrend) return;
+            pendingTrend = null;
+            trendChartPanel.setReport(report);
+        }, ex -> {
+            if (trend != pendingTrend) return;
+            pendingTrend = null;
+            trendChartPanel.setReport(null);
+        });
     }
 
-    // ================= PIE CHART DATA =================
-    private void updateChart() throws Exception {
-
-        List<Transaction> transactions = transactionService.getAllTransactions();
-        Map<String, Double> categoryTotals = new HashMap<>();
+    // ================= SUMMARY VALUES =================
+    private void updateSummaryValues(TransactionSummary summary) {
 
-        for (Transaction t : transactions) {
-            if (t.getType() == TransactionType.EXPENSE) {
-                categoryTotals.merge(t.getCategory(), t.getAmount(), Double::sum);
-            }
-        }
+        lblIncome.setText("Total Income: " + Money.format(summary.getTotalIncome()));
+        lblExpense.setText("Total Expense: " + Money.format(summary.getTotalExpense()));
+        lblBalance.setText("Balance: " + Money.format(summary.getBalance()));
+    }
 
-        pieChartPanel.setData(categoryTotals);
+    // ================= PIE CHART DATA =================
+    private void updateChart(TransactionSummary summary) {
+        pieChartPanel.setData(summary.getExpenseByCategory());
     }
 
     // ================= INNER PIE CHART PANEL =================
     private static class PieChartPanel extends JPanel {
 
-        private Map<String, Double> data = new HashMap<>();
+        private Map<String, Long> data = new HashMap<>();
 
-        public void setData(Map<String, Double> data) {
+        public void setData(Map<String, Long> data) {
             this.data = data;
             repaint();
         }
@@ -117,7 +207,7 @@ public class SummaryPanel extends JPanel {
                 return;
             }
 
-            double total = data.values().stream().mapToDouble(Double::doubleValue).sum();
+            long total = data.values().stream().mapToLong(Long::longValue).sum();
 
             int x = 50;
             int y = 20;
@@ -132,8 +222,8 @@ public class SummaryPanel extends JPanel {
             };
 
             int i = 0;
-            for (Map.Entry<String, Double> entry : data.entrySet()) {
-                int arcAngle = (int) Math.round((entry.getValue() / total) * 360);
+            for (Map.Entry<String, Long> entry : data.entrySet()) {
+                int arcAngle = (int) Math.round((double) entry.getValue() / total * 360);
                 g.setColor(colors[i % colors.length]);
                 g.fillArc(x, y, width, height, startAngle, arcAngle);
                 startAngle += arcAngle;
@@ -155,4 +245,106 @@ public class SummaryPanel extends JPanel {
             }
         }
     }
+
+    // ================= INNER TREND CHART PANEL =================
+    // Stacked bars per period: the largest categories, then everything else
+    private static class TrendChartPanel extends JPanel {
+
+        private static final int MAX_SERIES = 5;
+
+        private static final Color[] COLORS = {
+                Color.RED, Color.BLUE, Color.GREEN,
+                Color.ORANGE, Color.MAGENTA, Color.GRAY
+        };
+
+        private TrendReport report;
+
+        public void setReport(TrendReport report) {
+            this.report = report;
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+
+            if (report == null || report.getMaxTotal() == 0) {
+                g.drawString("No expense data to display", 20, 20);
+                return;
+            }
+
+            List<String> names = new ArrayList<>();
+            List<long[]> series = new ArrayList<>();
+            long[] other = null;
+            for (Map.Entry<String, long[]> e : report.getTotalsByCategory().entrySet()) {
+                if (names.size() < MAX_SERIES) {
+                    names.add(e.getKey());
+                    series.add(e.getValue());
+                } else {
+                    if (other == null) other = new long[report.getPeriods().size()];
+                    for (int i = 0; i < other.length; i++) other[i] += e.getValue()[i];
+                }
+            }
+            if (other != null) {
+                names.add("Other");
+                series.add(other);
+            }
+
+            int left = 10;
+            int top = 20;
+            int legendWidth = 130;
+            int chartWidth = Math.max(50, getWidth() - left - legendWidth - 10);
+            int chartHeight = Math.max(50, getHeight() - top - 25);
+            int baseline = top + chartHeight;
+
+            int periods = report.getPeriods().size();
+            double barWidth = (double) chartWidth / periods;
+            double scale = (double) chartHeight / report.getMaxTotal();
+
+            g.setColor(Color.BLACK);
+            g.drawString("max " + Money.format(report.getMaxTotal()), left, top - 5);
+            g.drawLine(left, baseline, left + chartWidth, baseline);
+
+            for (int p = 0; p < periods; p++) {
+                int x = left + (int) (p * barWidth);
+                int w = Math.max(1, (int) barWidth - 2);
+                int y = baseline;
+                for (int s = 0; s < series.size(); s++) {
+                    int h = (int) Math.round(series.get(s)[p] * scale);
+                    if (h == 0) continue;
+                    y -= h;
+                    g.setColor(COLORS[s % COLORS.length]);
+                    g.fillRect(x, y, w, h);
+                }
+            }
+
+            // Label roughly every sixth bar so the text never overlaps
+            g.setColor(Color.BLACK);
+            int step = Math.max(1, (periods + 5) / 6);
+            for (int p = 0; p < periods; p += step) {
+                int x = left + (int) (p * barWidth);
+                g.drawString(periodLabel(report.getPeriods().get(p)), x, baseline + 15);
+            }
+
+            // Legend
+            int legendX = left + chartWidth + 10;
+            int legendY = top;
+            for (int s = 0; s < names.size(); s++) {
+                g.setColor(COLORS[s % COLORS.length]);
+                g.fillRect(legendX, legendY, 15, 15);
+                g.setColor(Color.BLACK);
+                g.drawString(names.get(s), legendX + 20, legendY + 12);
+                legendY += 25;
+            }
+        }
+
+        private String periodLabel(LocalDate start) {
+            return switch (report.getGranularity()) {
+                case DAY, WEEK -> start.toString().substring(5);
+                case MONTH -> start.toString().substring(0, 7);
+                case QUARTER -> start.getYear() + " Q" + ((start.getMonthValue() + 2) / 3);
+                case YEAR -> String.valueOf(start.getYear());
+            };
+        }
+    }
 }
@@ -0,0 +1,61 @@
+package com.expensetracker.ui;
+
+import com.expensetracker.metrics.LatencyHistogram;
+import com.expensetracker.metrics.Metrics;
+
+import javax.swing.SwingUtilities;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Hands the outcome of a background service call back to the Event
+ * Dispatch Thread. Cancelled futures are dropped silently.
+ *
+ * Times the wait for the EDT after a result arrives and the callback run
+ * on it, as {@code ui.edt.queueDelay} and {@code ui.edt.callback}.
+ */
+final class SwingAsync {
+
+    private static final LatencyHistogram QUEUE_DELAY = Metrics.timer("ui.edt.queueDelay");
+    private static final LatencyHistogram CALLBACK = Metrics.timer("ui.edt.callback");
+
+    private SwingAsync() {
+        // utility class
+    }
+
+    static <T> void onEdt(CompletableFuture<T> future,
+                          Consumer<? super T> onSuccess,
+                          Consumer<Throwable> onError) {
+
+        future.whenComplete((result, error) -> {
+            long completed = System.nanoTime();
+            SwingUtilities.invokeLater(() -> {
+                long start = System.nanoTime();
+                QUEUE_DELAY.record(start - completed);
+                try {
+                    deliver(result, error, onSuccess, onError);
+                } finally {
+                    CALLBACK.recordSince(start);
+                }
+            });
+        });
+    }
+
+    private static <T> void deliver(T result, Throwable error,
+                                    Consumer<? super T> onSuccess,
+                                    Consumer<Throwable> onError) {
+        if (error == null) {
+            onSuccess.accept(result);
+            return;
+        }
+
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        if (!(cause instanceof CancellationException)) {
+            onError.accept(cause);
+        }
+    }
+}
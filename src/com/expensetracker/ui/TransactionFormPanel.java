@@ -1,19 +1,24 @@
 package com.expensetracker.ui;
 
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Money;
 import com.expensetracker.model.Transaction;
 import com.expensetracker.model.TransactionType;
+import com.expensetracker.service.AsyncTransactionService;
 import com.expensetracker.service.TransactionService;
+import com.expensetracker.service.WriteBehindQueue;
 
 import javax.swing.*;
 import javax.swing.text.MaskFormatter;
 import java.awt.*;
+import java.io.IOException;
 import java.text.ParseException;
 import java.time.LocalDate;
 
 public class TransactionFormPanel extends JPanel {
 
     private JTextField txtAmount;
-    private JTextField txtCategory;
+    private JComboBox<String> cmbCategory;
     private JTextArea txtNotes;
     private JComboBox<TransactionType> cmbType;
     private JFormattedTextField txtDate;
@@ -21,12 +26,15 @@ public class TransactionFormPanel extends JPanel {
     private JButton btnAdd;
     private JButton btnUpdate;
     private JButton btnClear;
+    private JLabel lblStatus;
 
     private final TransactionService transactionService;
+    private final AsyncTransactionService asyncService;
     private int selectedTransactionId = -1;
 
     public TransactionFormPanel() {
-        this.transactionService = new TransactionService();
+        this.transactionService = TransactionService.shared();
+        this.asyncService = new AsyncTransactionService(transactionService);
         initializeUI();
     }
 
@@ -63,8 +71,10 @@ public class TransactionFormPanel extends JPanel {
         formPanel.add(new JLabel("Category:"), gbc);
 
         gbc.gridx = 1;
-        txtCategory = new JTextField();
-        formPanel.add(txtCategory, gbc);
+        // Pick an existing category or type a new one
+        cmbCategory = new JComboBox<>();
+        cmbCategory.setEditable(true);
+        formPanel.add(cmbCategory, gbc);
 
         // Type
         gbc.gridx = 0; gbc.gridy++;
@@ -97,10 +107,44 @@ public class TransactionFormPanel extends JPanel {
         buttonPanel.add(btnUpdate);
         buttonPanel.add(btnClear);
 
+        // Save acknowledgements in write-behind mode, instead of a dialog per row
+        lblStatus = new JLabel(" ");
+        lblStatus.setHorizontalAlignment(SwingConstants.CENTER);
+
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(buttonPanel, BorderLayout.CENTER);
+        southPanel.add(lblStatus, BorderLayout.SOUTH);
+
         add(formPanel, BorderLayout.CENTER);
-        add(buttonPanel, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
+
+        if (WriteBehindQueue.isEnabled()) {
+            WriteBehindQueue.shared().setErrorHandler((t, ex) -> SwingUtilities.invokeLater(() ->
+                    showError("Could not save " + Money.toPlainString(t.getAmount()) + " "
+                            + t.getCategory() + " on " + t.getDate() + ": " + ex.getMessage())));
+        }
 
         registerActions();
+        loadCategories();
+    }
+
+    // ================= CATEGORIES =================
+    private void loadCategories() {
+        SwingAsync.onEdt(asyncService.getCategories(), categories -> {
+            String typed = categoryText();
+            cmbCategory.removeAllItems();
+            for (Category c : categories) {
+                cmbCategory.addItem(c.getName());
+            }
+            cmbCategory.getEditor().setItem(typed);
+        }, ex -> {
+            // Free text still works without the list
+        });
+    }
+
+    private String categoryText() {
+        Object item = cmbCategory.getEditor().getItem();
+        return item == null ? "" : item.toString().trim();
     }
 
     // ================= DATE FIELD =================
@@ -123,34 +167,90 @@ public class TransactionFormPanel extends JPanel {
 
     // ================= ADD =================
     private void addTransaction() {
+        Transaction t;
         try {
-            Transaction t = buildTransactionFromForm();
-            transactionService.addTransaction(t);
-            JOptionPane.showMessageDialog(this, "Transaction added successfully");
-            clearForm();
+            t = buildTransactionFromForm();
         } catch (Exception ex) {
             showError(ex.getMessage());
+            return;
+        }
+
+        if (WriteBehindQueue.isEnabled()) {
+            queueTransaction(t);
+            return;
+        }
+
+        setSaving(true);
+        SwingAsync.onEdt(asyncService.addTransaction(t), ignored -> {
+            setSaving(false);
+            JOptionPane.showMessageDialog(this, savedMessage("added"));
+            clearForm();
+            loadCategories();
+        }, ex -> {
+            setSaving(false);
+            showError(ex.getMessage());
+        });
+    }
+
+    // Only a journal append happens here; the row reaches the database with the next group commit
+    private void queueTransaction(Transaction t) {
+        WriteBehindQueue queue = WriteBehindQueue.shared();
+        try {
+            queue.submit(t);
+        } catch (IllegalArgumentException | IllegalStateException | IOException ex) {
+            showError(ex.getMessage());
+            return;
         }
+        lblStatus.setText("Saved (" + queue.getPendingCount() + " pending)");
+        clearForm();
     }
 
     // ================= UPDATE =================
     private void updateTransaction() {
+        Transaction t;
         try {
-            Transaction t = buildTransactionFromForm();
+            t = buildTransactionFromForm();
             t.setId(selectedTransactionId);
-            transactionService.updateTransaction(t);
-            JOptionPane.showMessageDialog(this, "Transaction updated successfully");
-            clearForm();
         } catch (Exception ex) {
             showError(ex.getMessage());
+            return;
+        }
+
+        setSaving(true);
+        SwingAsync.onEdt(asyncService.updateTransaction(t), ignored -> {
+            setSaving(false);
+            JOptionPane.showMessageDialog(this, savedMessage("updated"));
+            clearForm();
+            loadCategories();
+        }, ex -> {
+            setSaving(false);
+            showError(ex.getMessage());
+        });
+    }
+
+    // With the write journal on, a save during a database outage is only kept locally
+    private String savedMessage(String verb) {
+        if (!transactionService.isOffline()) {
+            return "Transaction " + verb + " successfully";
         }
+        return "Database unavailable: transaction saved locally and will be " + verb + " when it is back ("
+                + transactionService.getQueuedWriteCount() + " pending)";
+    }
+
+    // Blocks double submits while a save is in flight
+    private void setSaving(boolean saving) {
+        boolean editing = selectedTransactionId != -1;
+        btnAdd.setEnabled(!saving && !editing);
+        btnUpdate.setEnabled(!saving && editing);
+        btnClear.setEnabled(!saving);
+        setCursor(saving ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
     }
 
     // ================= FORM → MODEL =================
     private Transaction buildTransactionFromForm() {
 
-        double amount = Double.parseDouble(txtAmount.getText().trim());
-        String category = txtCategory.getText().trim();
+        long amount = Money.parse(txtAmount.getText());
+        String category = categoryText();
         TransactionType type = (TransactionType) cmbType.getSelectedItem();
         String notes = txtNotes.getText().trim();
         String dateText = txtDate.getText().trim();
@@ -167,7 +267,7 @@ public class TransactionFormPanel extends JPanel {
     // ================= CLEAR =================
     private void clearForm() {
         txtAmount.setText("");
-        txtCategory.setText("");
+        cmbCategory.getEditor().setItem("");
         txtNotes.setText("");
         txtDate.setValue(null);
         cmbType.setSelectedIndex(0);
@@ -182,8 +282,8 @@ public class TransactionFormPanel extends JPanel {
 
         selectedTransactionId = t.getId();
 
-        txtAmount.setText(String.valueOf(t.getAmount()));
-        txtCategory.setText(t.getCategory());
+        txtAmount.setText(Money.toPlainString(t.getAmount()));
+        cmbCategory.getEditor().setItem(t.getCategory());
         txtNotes.setText(t.getNotes());
         cmbType.setSelectedItem(t.getType());
         txtDate.setText(t.getDate().toString());
@@ -195,7 +295,8 @@ public class TransactionFormPanel extends JPanel {
 
     public TransactionFormPanel(MainUI mainUI) {
         this.mainUI = mainUI;
-        this.transactionService = new TransactionService();
+        this.transactionService = TransactionService.shared();
+        this.asyncService = new AsyncTransactionService(transactionService);
         initializeUI();
     }
 
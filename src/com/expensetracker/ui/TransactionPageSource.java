@@ -0,0 +1,75 @@
+package com.expensetracker.ui;
+
+import com.expensetracker.dao.TransactionCursor;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.service.TransactionService;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Where {@link LazyTransactionTableModel} gets its rows from. Both methods
+ * are called off the EDT.
+ */
+interface TransactionPageSource {
+
+    /** Ledger order: newest date first, then highest id. */
+    Comparator<Transaction> LEDGER_ORDER =
+            Comparator.comparing(Transaction::getDate).thenComparingInt(Transaction::getId).reversed();
+
+    int count() throws Exception;
+
+    /**
+     * Fetches {@code limit} rows starting at {@code offset}. {@code after} is
+     * the row just before {@code offset} when the model already knows it,
+     * which lets the source seek by key instead of skipping rows.
+     */
+    List<Transaction> fetch(int offset, int limit, TransactionCursor after) throws Exception;
+
+    // ================= FULL LEDGER =================
+    static TransactionPageSource ledger(TransactionService service) {
+        return new TransactionPageSource() {
+            @Override
+            public int count() throws Exception {
+                return service.countTransactions();
+            }
+
+            @Override
+            public List<Transaction> fetch(int offset, int limit, TransactionCursor after) throws Exception {
+                return after != null
+                        ? service.getPage(after, limit).getTransactions()
+                        : service.getRange(offset, limit);
+            }
+        };
+    }
+
+    // ================= SEARCH =================
+    static TransactionPageSource search(TransactionService service, String query) {
+        return new TransactionPageSource() {
+            @Override
+            public int count() throws Exception {
+                return service.searchTransactions(query, 0, 1).getTotal();
+            }
+
+            @Override
+            public List<Transaction> fetch(int offset, int limit, TransactionCursor after) throws Exception {
+                return service.searchTransactions(query, offset, limit).getTransactions();
+            }
+        };
+    }
+
+    // ================= IN-MEMORY RESULT =================
+    static TransactionPageSource of(List<Transaction> rows) {
+        return new TransactionPageSource() {
+            @Override
+            public int count() {
+                return rows.size();
+            }
+
+            @Override
+            public List<Transaction> fetch(int offset, int limit, TransactionCursor after) {
+                return rows.subList(offset, Math.min(rows.size(), offset + limit));
+            }
+        };
+    }
+}
@@ -1,36 +1,81 @@
 package com.expensetracker.ui;
 
+import com.expensetracker.exporter.ExportFormat;
+import com.expensetracker.exporter.ExportResult;
+import com.expensetracker.exporter.TransactionExporter;
+import com.expensetracker.importer.ImportResult;
+import com.expensetracker.importer.TransactionImporter;
+import com.expensetracker.model.Money;
 import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionFilter;
 import com.expensetracker.model.TransactionType;
+import com.expensetracker.service.AsyncTransactionService;
+import com.expensetracker.service.TransactionEvent;
 import com.expensetracker.service.TransactionService;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.io.File;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 
 public class TransactionTablePanel extends JPanel {
 
     private JTable table;
-    private DefaultTableModel tableModel;
+    private LazyTransactionTableModel tableModel;
 
     private JComboBox<TransactionType> cmbTypeFilter;
     private JTextField txtCategoryFilter;
     private JTextField txtStartDate;
     private JTextField txtEndDate;
+    private JTextField txtMinAmount;
+    private JTextField txtMaxAmount;
+    private JTextField txtNotesFilter;
+    private JComboBox<TransactionFilter.Sort> cmbSort;
+    private JTextField txtLimit;
+    private JTextField txtSearch;
 
     private JButton btnFilter;
     private JButton btnRefresh;
+    private JButton btnSearch;
     private JButton btnDelete;
     private JButton btnEdit;
+    private JButton btnImport;
+    private JButton btnExport;
+
+    // Non-null while an export runs; the Export button then cancels it
+    private TransactionExporter exporter;
+
+    private JProgressBar progressBar;
+
+    private static final int PAGE_SIZE = 200;
+    private static final int MAX_CACHED_PAGES = 25;
+
+    // Larger bursts (imports) reload the visible pages instead of patching rows
+    private static final int MAX_IN_PLACE_CHANGES = 500;
 
     private TransactionService transactionService;
+    private AsyncTransactionService asyncService;
+
+    // Bumped for every new load; results from older loads are discarded
+    private int loadGeneration;
+    private CompletableFuture<?> pendingLoad;
+
+    // Filter currently shown, or null for the full ledger
+    private TransactionFilter filter;
+
+    // Search currently shown, or null
+    private String searchQuery;
 
     public TransactionTablePanel(MainUI mainUI) {
-        this.transactionService = new TransactionService();
+        this.transactionService = TransactionService.shared();
+        this.asyncService = new AsyncTransactionService(transactionService);
         initializeUI();
         loadAllTransactions();
+        transactionService.getEventBus().subscribe(this::onTransactionsChanged, SwingUtilities::invokeLater);
     }
 
     // ================= UI SETUP =================
@@ -47,48 +92,74 @@ public class TransactionTablePanel extends JPanel {
     // ================= FILTER PANEL =================
     private JPanel createFilterPanel() {
 
-        JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
-
         txtStartDate = new JTextField(8);
         txtEndDate = new JTextField(8);
         txtCategoryFilter = new JTextField(10);
+        txtCategoryFilter.setToolTipText("One category, or several separated by commas");
         cmbTypeFilter = new JComboBox<>();
         cmbTypeFilter.addItem(null); // All
         cmbTypeFilter.addItem(TransactionType.INCOME);
         cmbTypeFilter.addItem(TransactionType.EXPENSE);
+        txtMinAmount = new JTextField(6);
+        txtMaxAmount = new JTextField(6);
+
+        txtNotesFilter = new JTextField(10);
+        txtNotesFilter.setToolTipText("Text the notes contain");
+        cmbSort = new JComboBox<>(TransactionFilter.Sort.values());
+        txtLimit = new JTextField(4);
+        txtLimit.setToolTipText("Maximum rows; blank for all");
 
         btnFilter = new JButton("Filter");
         btnRefresh = new JButton("Refresh");
 
-        panel.add(new JLabel("From (yyyy-mm-dd):"));
-        panel.add(txtStartDate);
-        panel.add(new JLabel("To:"));
-        panel.add(txtEndDate);
-        panel.add(new JLabel("Category:"));
-        panel.add(txtCategoryFilter);
-        panel.add(new JLabel("Type:"));
-        panel.add(cmbTypeFilter);
-        panel.add(btnFilter);
-        panel.add(btnRefresh);
+        txtSearch = new JTextField(12);
+        txtSearch.setToolTipText("Words or word prefixes in notes or category");
+        btnSearch = new JButton("Search");
+
+        JPanel criteria = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        criteria.add(new JLabel("From (yyyy-mm-dd):"));
+        criteria.add(txtStartDate);
+        criteria.add(new JLabel("To:"));
+        criteria.add(txtEndDate);
+        criteria.add(new JLabel("Category:"));
+        criteria.add(txtCategoryFilter);
+        criteria.add(new JLabel("Type:"));
+        criteria.add(cmbTypeFilter);
+        criteria.add(new JLabel("Amount:"));
+        criteria.add(txtMinAmount);
+        criteria.add(new JLabel("to"));
+        criteria.add(txtMaxAmount);
+
+        JPanel options = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        options.add(new JLabel("Notes:"));
+        options.add(txtNotesFilter);
+        options.add(new JLabel("Sort:"));
+        options.add(cmbSort);
+        options.add(new JLabel("Limit:"));
+        options.add(txtLimit);
+        options.add(btnFilter);
+        options.add(btnRefresh);
+        options.add(new JLabel("Search:"));
+        options.add(txtSearch);
+        options.add(btnSearch);
 
         btnFilter.addActionListener(e -> applyFilter());
+        btnSearch.addActionListener(e -> applySearch());
+        txtSearch.addActionListener(e -> applySearch());
         btnRefresh.addActionListener(e -> loadAllTransactions());
 
+        JPanel panel = new JPanel(new GridLayout(2, 1));
+        panel.add(criteria);
+        panel.add(options);
         return panel;
     }
 
     // ================= TABLE PANEL =================
     private JScrollPane createTablePanel() {
 
-        tableModel = new DefaultTableModel(
-                new Object[]{"ID", "Amount", "Date", "Category", "Type", "Notes"},
-                0
-        ) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // JTable is read-only
-            }
-        };
+        // Only the rows around the viewport are ever held in memory
+        tableModel = new LazyTransactionTableModel(asyncService, PAGE_SIZE, MAX_CACHED_PAGES);
+        tableModel.setErrorHandler(ex -> showError(ex.getMessage()));
 
         table = new JTable(tableModel);
         table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -102,12 +173,25 @@ public class TransactionTablePanel extends JPanel {
 
         JPanel panel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
 
+        progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setString("Loading...");
+        progressBar.setStringPainted(true);
+        progressBar.setVisible(false);
+        panel.add(progressBar);
+
+        btnImport = new JButton("Import...");
+        btnExport = new JButton("Export...");
         btnEdit = new JButton("Edit");
         btnDelete = new JButton("Delete");
 
+        panel.add(btnImport);
+        panel.add(btnExport);
         panel.add(btnEdit);
         panel.add(btnDelete);
 
+        btnImport.addActionListener(e -> importStatement());
+        btnExport.addActionListener(e -> exportOrCancel());
         btnDelete.addActionListener(e -> deleteSelected());
         btnEdit.addActionListener(e -> editSelected());
 
@@ -116,64 +200,144 @@ public class TransactionTablePanel extends JPanel {
 
     // ================= LOAD ALL =================
     void loadAllTransactions() {
-        try {
-            List<Transaction> transactions = transactionService.getAllTransactions();
-            populateTable(transactions);
-        } catch (Exception ex) {
-            showError(ex.getMessage());
-        }
+        filter = null;
+        searchQuery = null;
+        showSource(TransactionPageSource.ledger(transactionService), beginLoad(), true);
     }
 
     // ================= FILTER =================
+    // Every criterion goes to the database in one query
     private void applyFilter() {
 
+        TransactionFilter criteria;
         try {
-            LocalDate start = txtStartDate.getText().isBlank()
-                    ? null
-                    : LocalDate.parse(txtStartDate.getText().trim());
+            criteria = TransactionFilter.all()
+                    .withDateRange(parseDate(txtStartDate), parseDate(txtEndDate))
+                    .withCategories(Arrays.asList(txtCategoryFilter.getText().split(",")))
+                    .withType((TransactionType) cmbTypeFilter.getSelectedItem())
+                    .withAmountRange(parseAmount(txtMinAmount), parseAmount(txtMaxAmount))
+                    .withNotesContaining(txtNotesFilter.getText())
+                    .withSort((TransactionFilter.Sort) cmbSort.getSelectedItem())
+                    .withLimit(parseLimit(txtLimit));
+        } catch (IllegalArgumentException ex) {
+            showError(ex.getMessage());
+            return;
+        } catch (Exception ex) {
+            showError("Invalid filter input");
+            return;
+        }
 
-            LocalDate end = txtEndDate.getText().isBlank()
-                    ? null
-                    : LocalDate.parse(txtEndDate.getText().trim());
+        filter = criteria;
+        searchQuery = null;
+        runFilter(true);
+    }
 
-            String category = txtCategoryFilter.getText().trim();
-            TransactionType type = (TransactionType) cmbTypeFilter.getSelectedItem();
+    private static LocalDate parseDate(JTextField field) {
+        return field.getText().isBlank() ? null : LocalDate.parse(field.getText().trim());
+    }
 
-            List<Transaction> result =
-                    transactionService.filterTransactions(start, end, category, type);
+    private static Long parseAmount(JTextField field) {
+        return field.getText().isBlank() ? null : Money.parse(field.getText());
+    }
 
-            populateTable(result);
+    private static int parseLimit(JTextField field) {
+        if (field.getText().isBlank()) return 0;
+        try {
+            return Integer.parseInt(field.getText().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Limit must be a whole number");
+        }
+    }
 
-        } catch (Exception ex) {
-            showError("Invalid filter input");
+    private void runFilter(boolean notifyEmpty) {
+
+        int generation = beginLoad();
+        CompletableFuture<List<Transaction>> load = asyncService.filterTransactions(filter);
+        pendingLoad = load;
+
+        SwingAsync.onEdt(load, result -> {
+            if (generation != loadGeneration) return;
+            pendingLoad = null;
+            showSource(TransactionPageSource.of(result), generation, notifyEmpty);
+        }, ex -> {
+            if (generation != loadGeneration) return;
+            endLoad();
+            showError(ex instanceof IllegalArgumentException ? ex.getMessage() : "Invalid filter input");
+        });
+    }
+
+    // ================= SEARCH =================
+    // Ranked hits, paged lazily like the ledger
+    private void applySearch() {
+
+        String query = txtSearch.getText().trim();
+        if (query.isEmpty()) {
+            loadAllTransactions();
+            return;
         }
+
+        filter = null;
+        searchQuery = query;
+        showSource(TransactionPageSource.search(transactionService, query), beginLoad(), true);
     }
 
     // ================= TABLE POPULATION =================
-    private void populateTable(List<Transaction> transactions) {
+    private void showSource(TransactionPageSource source, int generation, boolean notifyEmpty) {
+
+        tableModel.setSource(source, count -> {
+            if (generation != loadGeneration) return;
+            endLoad();
+            if (count == 0 && notifyEmpty) {
+                showNoRecords();
+            }
+        });
+    }
 
-        tableModel.setRowCount(0);
+    // ================= CHANGE EVENTS =================
+    // Ledger view: patch just the changed rows. Filtered view: re-run the
+    // filter, which is a cache hit unless the change touched it.
+    private void onTransactionsChanged(List<TransactionEvent> events) {
 
-        if (transactions.isEmpty()) {
-            JOptionPane.showMessageDialog(this,
-                    "No records found",
-                    "Info",
-                    JOptionPane.INFORMATION_MESSAGE);
+        if (filter == null && searchQuery == null && pendingLoad == null && events.size() <= MAX_IN_PLACE_CHANGES
+                && tableModel.applyChanges(events, TransactionPageSource.LEDGER_ORDER)) {
             return;
         }
 
-        for (Transaction t : transactions) {
-            tableModel.addRow(new Object[]{
-                    t.getId(),
-                    t.getAmount(),
-                    t.getDate(),
-                    t.getCategory(),
-                    t.getType(),
-                    t.getNotes()
-            });
+        if (filter != null) {
+            runFilter(false);
+        } else if (searchQuery != null) {
+            showSource(TransactionPageSource.search(transactionService, searchQuery), beginLoad(), false);
+        } else {
+            showSource(TransactionPageSource.ledger(transactionService), beginLoad(), false);
         }
     }
 
+    // ================= LOAD STATE =================
+    // Cancels whatever is still running; the newest request always wins
+    private int beginLoad() {
+        if (pendingLoad != null) {
+            pendingLoad.cancel(true);
+            pendingLoad = null;
+        }
+        tableModel.cancel();
+        progressBar.setVisible(true);
+        revalidate();
+        return ++loadGeneration;
+    }
+
+    private void endLoad() {
+        pendingLoad = null;
+        progressBar.setVisible(false);
+        revalidate();
+    }
+
+    private void showNoRecords() {
+        JOptionPane.showMessageDialog(this,
+                "No records found",
+                "Info",
+                JOptionPane.INFORMATION_MESSAGE);
+    }
+
     // ================= DELETE =================
     private void deleteSelected() {
 
@@ -190,14 +354,18 @@ public class TransactionTablePanel extends JPanel {
 
         if (confirm != JOptionPane.YES_OPTION) return;
 
-        int id = (int) tableModel.getValueAt(row, 0);
+        Transaction selected = tableModel.getTransactionAt(row);
+        if (selected == null) return; // row not loaded yet
+        int id = selected.getId();
 
-        try {
-            transactionService.deleteTransaction(id);
-            loadAllTransactions();
-        } catch (Exception ex) {
+        btnDelete.setEnabled(false);
+        // The row disappears when the delete event arrives
+        SwingAsync.onEdt(asyncService.deleteTransaction(id), ignored -> {
+            btnDelete.setEnabled(true);
+        }, ex -> {
+            btnDelete.setEnabled(true);
             showError(ex.getMessage());
-        }
+        });
     }
 
     // ================= EDIT =================
@@ -209,13 +377,16 @@ public class TransactionTablePanel extends JPanel {
             return;
         }
 
+        Transaction selected = tableModel.getTransactionAt(row);
+        if (selected == null) return; // row not loaded yet
+
         Transaction transaction = new Transaction(
-                (int) tableModel.getValueAt(row, 0),
-                (double) tableModel.getValueAt(row, 1),
-                (LocalDate) tableModel.getValueAt(row, 2),
-                (String) tableModel.getValueAt(row, 3),
-                (TransactionType) tableModel.getValueAt(row, 4),
-                (String) tableModel.getValueAt(row, 5)
+                selected.getId(),
+                selected.getAmount(),
+                selected.getDate(),
+                selected.getCategory(),
+                selected.getType(),
+                selected.getNotes()
         );
 
         // ✅ Correct way to access MainFrame
@@ -228,6 +399,99 @@ public class TransactionTablePanel extends JPanel {
     }
 
 
+    // ================= IMPORT =================
+    private void importStatement() {
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import bank statement (CSV / OFX / QIF)");
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        File file = chooser.getSelectedFile();
+        btnImport.setEnabled(false);
+
+        // Large statements take a while; keep the EDT free while streaming
+        new SwingWorker<ImportResult, Void>() {
+            @Override
+            protected ImportResult doInBackground() throws Exception {
+                return new TransactionImporter(transactionService).importFile(file.toPath());
+            }
+
+            @Override
+            protected void done() {
+                btnImport.setEnabled(true);
+                try {
+                    ImportResult result = get();
+                    String message = result.toString();
+                    if (result.getErrorLog() != null) {
+                        message += "\nRejected rows logged to " + result.getErrorLog();
+                    }
+                    JOptionPane.showMessageDialog(TransactionTablePanel.this,
+                            message, "Import", JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    showError("Import failed: " + cause.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    // ================= EXPORT =================
+    private void exportOrCancel() {
+        if (exporter != null) {
+            exporter.cancel();
+            btnExport.setEnabled(false);
+            return;
+        }
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export transactions (CSV / CSV.GZ / XLSX)");
+        chooser.setSelectedFile(new File("transactions.csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        File chosen = chooser.getSelectedFile();
+        if (!chosen.getName().contains(".")) {
+            chosen = new File(chosen.getParentFile(), chosen.getName() + ExportFormat.CSV.getExtension());
+        }
+        File file = chosen;
+
+        // The current filter criteria; a search or the full ledger exports everything
+        TransactionFilter criteria = filter != null ? filter : TransactionFilter.all();
+        TransactionExporter running = new TransactionExporter(transactionService);
+        exporter = running;
+        btnExport.setText("Cancel export");
+
+        new SwingWorker<ExportResult, Long>() {
+            @Override
+            protected ExportResult doInBackground() throws Exception {
+                return running.export(criteria, file.toPath(),
+                        ExportFormat.fromFileName(file.getName()),
+                        (rows, rate) -> publish(rows));
+            }
+
+            @Override
+            protected void process(List<Long> chunks) {
+                if (exporter == running) {
+                    btnExport.setText("Cancel export (" + chunks.get(chunks.size() - 1) + " rows)");
+                }
+            }
+
+            @Override
+            protected void done() {
+                exporter = null;
+                btnExport.setText("Export...");
+                btnExport.setEnabled(true);
+                try {
+                    JOptionPane.showMessageDialog(TransactionTablePanel.this,
+                            get().toString(), "Export", JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof CancellationException) return;
+                    showError("Export failed: " + cause.getMessage());
+                }
+            }
+        }.execute();
+    }
+
     // ================= ERROR =================
     private void showError(String msg) {
         JOptionPane.showMessageDialog(this, msg, "Error", JOptionPane.ERROR_MESSAGE);